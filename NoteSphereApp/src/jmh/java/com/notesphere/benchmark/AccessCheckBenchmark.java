@@ -0,0 +1,47 @@
+package com.notesphere.benchmark;
+
+import com.notesphere.model.User;
+import com.notesphere.repository.UserRepository;
+import com.notesphere.service.NoteService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-note reads through the owner / public / shared access check, including denied requests.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccessCheckBenchmark {
+    private static final int SAMPLE_USERS = 1000;
+
+    private NoteService noteService;
+    private final List<User> users = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        noteService = context.bean(NoteService.class);
+        UserRepository userRepository = context.bean(UserRepository.class);
+        for (int i = 0; i < SAMPLE_USERS; i++) {
+            userRepository.findByUsername(context.randomUsername()).ifPresent(users::add);
+        }
+    }
+
+    @Benchmark
+    public void readNote(BenchmarkContext context, Blackhole blackhole) {
+        User user = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+        try {
+            blackhole.consume(noteService.getNote(user, context.randomNoteId()));
+        } catch (IllegalStateException denied) {
+            blackhole.consume(denied);
+        }
+    }
+}
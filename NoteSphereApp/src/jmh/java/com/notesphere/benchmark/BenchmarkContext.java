@@ -0,0 +1,78 @@
+package com.notesphere.benchmark;
+
+import com.notesphere.NoteSphereApplication;
+import com.notesphere.search.SearchIndexer;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Boots the application against the embedded database and loads the generated data set once per fork.
+ * Sizes can be changed with -Dbench.users, -Dbench.notes and -Dbench.likesPerUser.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+    final int users = Integer.getInteger("bench.users", 10_000);
+    final int notes = Integer.getInteger("bench.notes", 1_000_000);
+    final int likesPerUser = Integer.getInteger("bench.likesPerUser", 20);
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        Path indexDir = Files.createTempDirectory("notesphere-bench-index");
+        Path blobDir = Files.createTempDirectory("notesphere-bench-blobs");
+        context = new SpringApplicationBuilder(NoteSphereApplication.class)
+                .profiles("benchmark")
+                .properties("notesphere.search.index-dir=" + indexDir, "notesphere.blobs.dir=" + blobDir)
+                .run();
+
+        String passwordHash = bean(PasswordEncoder.class).encode("password");
+        new DataSetGenerator(bean(JdbcTemplate.class), users, notes, likesPerUser).generate(passwordHash);
+        bean(SearchIndexer.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public <T> T bean(String name, Class<T> type) {
+        return context.getBean(name, type);
+    }
+
+    public long randomUserId() {
+        return 1 + ThreadLocalRandom.current().nextInt(users);
+    }
+
+    public String randomUsername() {
+        return DataSetGenerator.username(randomUserId());
+    }
+
+    public long randomNoteId() {
+        return 1 + ThreadLocalRandom.current().nextInt(notes);
+    }
+
+    public long skewedNoteId() {
+        return DataSetGenerator.skewedNoteId(ThreadLocalRandom.current().nextDouble(), notes);
+    }
+
+    public String randomWord() {
+        return DataSetGenerator.WORDS[ThreadLocalRandom.current().nextInt(DataSetGenerator.WORDS.length)];
+    }
+}
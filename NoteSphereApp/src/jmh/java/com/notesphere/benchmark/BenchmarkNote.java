@@ -0,0 +1,44 @@
+package com.notesphere.benchmark;
+
+import com.notesphere.model.User;
+import com.notesphere.model.Visibility;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of {@link com.notesphere.model.Note} written by an import, shared by the two id
+ * generation variants in {@link IdGenerationBenchmark}.
+ */
+@MappedSuperclass
+public abstract class BenchmarkNote {
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "creator_id", nullable = false)
+    private User creator;
+
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String content;
+
+    @Enumerated(EnumType.STRING)
+    private Visibility visibility;
+
+    @Column(nullable = false)
+    private long likesCount = 0;
+
+    @Column(nullable = false)
+    private long commentsCount = 0;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    void fill(User creator, String title, String content, Visibility visibility) {
+        this.creator = creator;
+        this.title = title;
+        this.content = content;
+        this.visibility = visibility;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = createdAt;
+    }
+}
@@ -0,0 +1,155 @@
+package com.notesphere.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Fills the benchmark database with a reproducible data set: users, notes with
+ * generated text, a heavily skewed like distribution and a few private shares.
+ */
+public class DataSetGenerator {
+    static final String[] WORDS = {
+            "spring", "java", "database", "index", "cache", "thread", "stream", "query", "lucene", "network",
+            "kernel", "memory", "algorithm", "graph", "vector", "matrix", "compiler", "parser", "socket", "latency",
+            "throughput", "cluster", "replica", "shard", "schema", "migration", "bucket", "tensor", "lambda", "closure"
+    };
+
+    private static final int BATCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random = new Random(42);
+    private final int users;
+    private final int notes;
+    private final int likesPerUser;
+
+    public DataSetGenerator(JdbcTemplate jdbcTemplate, int users, int notes, int likesPerUser) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.users = users;
+        this.notes = notes;
+        this.likesPerUser = likesPerUser;
+    }
+
+    public void generate(String passwordHash) {
+        LocalDateTime now = LocalDateTime.now();
+        insertUsers(passwordHash, now);
+
+        // Likes are drawn first so every note can be inserted with its final likesCount
+        long[] likesCount = new long[notes + 1];
+        List<Object[]> likes = drawLikes(likesCount, now);
+        long likeRows = likes.size();
+
+        insertNotes(likesCount, now);
+        batchInsert("INSERT INTO dbo.likes (id, user_id, likeable_id, likeable_type, createdAt) VALUES (?, ?, ?, ?, ?)", likes);
+        insertShares(now);
+
+        restartSequence("users_seq", users + 1L);
+        restartSequence("notes_seq", notes + 1L);
+        restartSequence("likes_seq", likeRows + 1);
+        restartSequence("shared_notes_seq", users + 1L);
+    }
+
+    public static String username(long id) {
+        return "user" + id;
+    }
+
+    /**
+     * Note ids are skewed towards the low end so a few notes collect most of the likes.
+     */
+    public static long skewedNoteId(double uniform, int notes) {
+        return 1 + (long) (notes * Math.pow(uniform, 3));
+    }
+
+    private void insertUsers(String passwordHash, LocalDateTime now) {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= users; id++) {
+            Timestamp createdAt = Timestamp.valueOf(now.minusMinutes(users - id));
+            rows.add(new Object[]{id, username(id), username(id) + "@bench.local", passwordHash,
+                    "First" + id, "Last" + id, "nick" + id, "ACTIVE", createdAt, createdAt});
+            if (rows.size() == BATCH_SIZE) {
+                insertUserRows(rows);
+            }
+        }
+        insertUserRows(rows);
+    }
+
+    private void insertUserRows(List<Object[]> rows) {
+        batchInsert("INSERT INTO dbo.users (id, username, email, password, firstName, lastName, nickname, status, " +
+                "createdAt, updatedAt) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private List<Object[]> drawLikes(long[] likesCount, LocalDateTime now) {
+        List<Object[]> likes = new ArrayList<>(users * likesPerUser);
+        Timestamp createdAt = Timestamp.valueOf(now);
+        long likeId = 1;
+        for (long userId = 1; userId <= users; userId++) {
+            Set<Long> liked = new HashSet<>();
+            while (liked.size() < Math.min(likesPerUser, notes)) {
+                long noteId = skewedNoteId(random.nextDouble(), notes);
+                if (noteId <= notes && liked.add(noteId)) {
+                    likesCount[(int) noteId]++;
+                    likes.add(new Object[]{likeId++, userId, noteId, "NOTE", createdAt});
+                }
+            }
+        }
+        return likes;
+    }
+
+    private void insertNotes(long[] likesCount, LocalDateTime now) {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= notes; id++) {
+            Timestamp createdAt = Timestamp.valueOf(now.minusSeconds(notes - id));
+            long creatorId = 1 + random.nextInt(users);
+            String visibility = random.nextInt(10) < 8 ? "PUBLIC" : "PRIVATE";
+            rows.add(new Object[]{id, sentence(6), sentence(40), visibility, creatorId, createdAt, createdAt,
+                    likesCount[(int) id], 0L});
+            if (rows.size() == BATCH_SIZE) {
+                insertNoteRows(rows);
+            }
+        }
+        insertNoteRows(rows);
+    }
+
+    private void insertNoteRows(List<Object[]> rows) {
+        batchInsert("INSERT INTO dbo.notes (id, title, content, visibility, creator_id, createdAt, updatedAt, " +
+                "likesCount, commentsCount) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private void insertShares(LocalDateTime now) {
+        // One share per user on a random note, so access checks also exercise the shared path
+        List<Object[]> rows = new ArrayList<>(users);
+        Timestamp createdAt = Timestamp.valueOf(now);
+        for (long id = 1; id <= users; id++) {
+            rows.add(new Object[]{id, 1 + random.nextInt(notes), id, random.nextBoolean() ? "READ" : "WRITE", createdAt});
+        }
+        batchInsert("INSERT INTO dbo.shared_notes (id, note_id, user_id, permissionType, createdAt) VALUES (?, ?, ?, ?, ?)", rows);
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+        rows.clear();
+    }
+
+    private void restartSequence(String sequence, long next) {
+        jdbcTemplate.execute("ALTER SEQUENCE dbo." + sequence + " RESTART WITH " + next);
+    }
+
+    private String sentence(int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package com.notesphere.benchmark;
+
+import com.notesphere.dto.FeedCursor;
+import com.notesphere.service.NoteService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Public feed rendering: offset pages against keyset cursors, near the top and deep into the feed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FeedBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_OFFSET = 10_000;
+
+    private NoteService noteService;
+    private String deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        noteService = context.bean(NoteService.class);
+
+        Map<String, Object> row = context.bean(JdbcTemplate.class).queryForMap(
+                "SELECT createdAt, id FROM dbo.notes WHERE visibility = 'PUBLIC' " +
+                "ORDER BY createdAt DESC, id DESC OFFSET " + DEEP_OFFSET + " ROWS FETCH NEXT 1 ROWS ONLY");
+        deepCursor = new FeedCursor(((Timestamp) row.get("createdAt")).toLocalDateTime(),
+                ((Number) row.get("id")).longValue()).encode();
+    }
+
+    @Benchmark
+    public Object offsetFirstPage(BenchmarkContext context) {
+        return noteService.getPublicNotes(PageRequest.of(0, PAGE_SIZE), context.randomUsername());
+    }
+
+    @Benchmark
+    public Object offsetDeepPage(BenchmarkContext context) {
+        return noteService.getPublicNotes(PageRequest.of(DEEP_OFFSET / PAGE_SIZE, PAGE_SIZE), context.randomUsername());
+    }
+
+    @Benchmark
+    public Object cursorFirstPage(BenchmarkContext context) {
+        return noteService.getPublicNotesFeed(null, PAGE_SIZE, context.randomUsername());
+    }
+
+    @Benchmark
+    public Object cursorDeepPage(BenchmarkContext context) {
+        return noteService.getPublicNotesFeed(deepCursor, PAGE_SIZE, context.randomUsername());
+    }
+}
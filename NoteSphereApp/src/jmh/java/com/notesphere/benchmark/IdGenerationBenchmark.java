@@ -0,0 +1,66 @@
+package com.notesphere.benchmark;
+
+import com.notesphere.model.User;
+import com.notesphere.model.Visibility;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Insert throughput of one import chunk with IDENTITY ids against pooled sequence ids, on
+ * otherwise identical tables. IDENTITY makes Hibernate execute every INSERT on its own to read
+ * the generated key; with a sequence the chunk goes out in JDBC batches of
+ * hibernate.jdbc.batch_size. Scores are chunks per second; multiply by
+ * {@link NoteImportBenchmark#CHUNK_SIZE} for rows per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGenerationBenchmark {
+    @Param({"IDENTITY", "SEQUENCE"})
+    private String idGeneration;
+
+    private EntityManagerFactory entityManagerFactory;
+    private Supplier<BenchmarkNote> newNote;
+    private long creatorId;
+    private String[] contents;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        entityManagerFactory = context.bean(EntityManagerFactory.class);
+        newNote = "IDENTITY".equals(idGeneration) ? IdentityNote::new : SequenceNote::new;
+        creatorId = context.randomUserId();
+
+        contents = new String[NoteImportBenchmark.CHUNK_SIZE];
+        for (int i = 0; i < contents.length; i++) {
+            contents[i] = context.randomWord() + " " + context.randomWord() + " " + context.randomWord();
+        }
+    }
+
+    @Benchmark
+    public int insertChunk() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            User creator = entityManager.getReference(User.class, creatorId);
+            for (int i = 0; i < contents.length; i++) {
+                BenchmarkNote note = newNote.get();
+                note.fill(creator, "Imported " + i, contents[i], i % 2 == 0 ? Visibility.PUBLIC : Visibility.PRIVATE);
+                entityManager.persist(note);
+            }
+            entityManager.getTransaction().commit();
+            return contents.length;
+        } finally {
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.notesphere.benchmark;
+
+import jakarta.persistence.*;
+
+/**
+ * Ids from an IDENTITY column, the mapping the entities had before they moved to sequences.
+ */
+@Entity
+@Table(name = "bench_identity_notes", schema = "dbo")
+public class IdentityNote extends BenchmarkNote {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+}
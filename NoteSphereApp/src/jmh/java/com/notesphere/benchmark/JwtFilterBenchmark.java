@@ -0,0 +1,55 @@
+package com.notesphere.benchmark;
+
+import com.notesphere.security.JwtAuthenticationFilter;
+import com.notesphere.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the JWT authentication filter for a pool of valid tokens.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+    private static final int TOKENS = 1000;
+
+    private JwtAuthenticationFilter filter;
+    private String[] tokens;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        filter = context.bean("jwtAuthenticationFilter", JwtAuthenticationFilter.class);
+        JwtTokenProvider tokenProvider = context.bean(JwtTokenProvider.class);
+
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = tokenProvider.generateToken(
+                    new UsernamePasswordAuthenticationToken(context.randomUsername(), null, List.of()));
+        }
+    }
+
+    @Benchmark
+    public void authenticate(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notes");
+        request.addHeader("Authorization", "Bearer " + tokens[ThreadLocalRandom.current().nextInt(TOKENS)]);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.notesphere.benchmark;
+
+import com.notesphere.service.NoteService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Like toggling on a skewed set of notes, so concurrent threads contend on the popular rows.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LikeToggleBenchmark {
+    private NoteService noteService;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        noteService = context.bean(NoteService.class);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void toggleSingleThread(BenchmarkContext context) {
+        noteService.toggleLike(context.skewedNoteId(), context.randomUsername());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void toggleContended(BenchmarkContext context) {
+        noteService.toggleLike(context.skewedNoteId(), context.randomUsername());
+    }
+}
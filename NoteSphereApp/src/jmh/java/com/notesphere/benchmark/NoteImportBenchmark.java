@@ -0,0 +1,48 @@
+package com.notesphere.benchmark;
+
+import com.notesphere.dto.note.NoteRequest;
+import com.notesphere.model.User;
+import com.notesphere.repository.UserRepository;
+import com.notesphere.service.NoteService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput of one import chunk. Scores are chunks per second; multiply by
+ * {@link #CHUNK_SIZE} for rows per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NoteImportBenchmark {
+    static final int CHUNK_SIZE = 500;
+
+    private NoteService noteService;
+    private User creator;
+    private final List<NoteRequest> chunk = new ArrayList<>(CHUNK_SIZE);
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        noteService = context.bean(NoteService.class);
+        creator = context.bean(UserRepository.class).findByUsername(context.randomUsername()).orElseThrow();
+
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            NoteRequest request = new NoteRequest();
+            request.setTitle("Imported " + i);
+            request.setContent(context.randomWord() + " " + context.randomWord() + " " + context.randomWord());
+            request.setPublic(i % 2 == 0);
+            chunk.add(request);
+        }
+    }
+
+    @Benchmark
+    public int importChunk() {
+        return noteService.importNotes(creator, chunk);
+    }
+}
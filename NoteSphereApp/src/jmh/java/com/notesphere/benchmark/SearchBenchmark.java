@@ -0,0 +1,33 @@
+package com.notesphere.benchmark;
+
+import com.notesphere.service.NoteService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+    private NoteService noteService;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        noteService = context.bean(NoteService.class);
+    }
+
+    @Benchmark
+    public Object singleTerm(BenchmarkContext context) {
+        return noteService.searchNotes(context.randomWord(), context.randomUsername(), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Object twoTermsWithPrefix(BenchmarkContext context) {
+        String prefix = context.randomWord().substring(0, 3);
+        return noteService.searchNotes(context.randomWord() + " " + prefix, context.randomUsername(), PageRequest.of(0, 20));
+    }
+}
@@ -0,0 +1,16 @@
+package com.notesphere.benchmark;
+
+import jakarta.persistence.*;
+
+/**
+ * Ids from a pooled sequence, as every application entity uses since the switch away from IDENTITY.
+ */
+@Entity
+@Table(name = "bench_sequence_notes", schema = "dbo")
+public class SequenceNote extends BenchmarkNote {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bench_sequence_notes_seq")
+    @SequenceGenerator(name = "bench_sequence_notes_seq", sequenceName = "bench_sequence_notes_seq",
+            schema = "dbo", allocationSize = 50)
+    private Long id;
+}
@@ -0,0 +1,130 @@
+// Load test comparing platform-thread and virtual-thread request execution.
+//
+// Three scenarios run together:
+//   streams - IDLE_CLIENTS users keep a notification stream open, like idle mobile clients
+//   feeds   - ramps up to FEED_VUS users paging database-bound feeds with no think time,
+//             far more than Tomcat's 200 platform threads
+//   probe   - a steady rate of requests that never touch the database
+//
+// With platform threads the feed users occupy every worker thread while they wait for a
+// connection, so probe requests queue behind them and their latency climbs. On virtual
+// threads the feed users wait on the database limiter instead and probes are answered at once.
+// Feed throughput is bounded by the connection pool in both modes; compare probe latency,
+// feed p95 and the number of failed requests.
+//
+// Run the application twice against the same database, then this script once per mode:
+//   java -jar target/notesphere-0.0.1-SNAPSHOT.jar --server.tomcat.max-connections=20000
+//   java -jar target/notesphere-0.0.1-SNAPSHOT.jar --server.tomcat.max-connections=20000 \
+//        --notesphere.virtual-threads.enabled=true      (Java 21, built with -Pjava21)
+//   k6 run -e MODE=platform -e USERNAME=... -e PASSWORD=... src/loadtest/k6/virtual-threads.js
+//   k6 run -e MODE=virtual  -e USERNAME=... -e PASSWORD=... src/loadtest/k6/virtual-threads.js
+// Each run prints probe p95, feed p95 and the feed error rate, and writes the full summary
+// to k6-<MODE>.json.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:5000';
+const MODE = __ENV.MODE || 'platform';
+const IDLE_CLIENTS = parseInt(__ENV.IDLE_CLIENTS || '5000', 10);
+const FEED_VUS = parseInt(__ENV.FEED_VUS || '2000', 10);
+const DURATION = __ENV.DURATION || '3m';
+
+export const options = {
+  setupTimeout: '60s',
+  scenarios: {
+    streams: {
+      executor: 'constant-vus',
+      exec: 'holdStream',
+      vus: IDLE_CLIENTS,
+      duration: DURATION,
+    },
+    feeds: {
+      executor: 'ramping-vus',
+      exec: 'browseFeeds',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: FEED_VUS },
+        { duration: DURATION, target: FEED_VUS },
+        { duration: '15s', target: 0 },
+      ],
+    },
+    probe: {
+      executor: 'constant-arrival-rate',
+      exec: 'probe',
+      rate: 50,
+      timeUnit: '1s',
+      duration: DURATION,
+      startTime: '30s',
+      preAllocatedVUs: 50,
+      maxVUs: 500,
+    },
+  },
+  thresholds: {
+    'http_req_duration{scenario:probe}': ['p(95)<100'],
+    'http_req_duration{scenario:feeds}': ['p(95)<2000'],
+    'http_req_failed{scenario:feeds}': ['rate<0.01'],
+  },
+};
+
+export function setup() {
+  const response = http.post(`${BASE_URL}/api/auth/signin`,
+    JSON.stringify({ usernameOrEmail: __ENV.USERNAME, password: __ENV.PASSWORD }),
+    { headers: { 'Content-Type': 'application/json' } });
+  check(response, { 'signed in': (r) => r.status === 200 });
+  return { token: response.json('accessToken') };
+}
+
+function authHeaders(data) {
+  return { headers: { Authorization: `Bearer ${data.token}` } };
+}
+
+export function holdStream(data) {
+  // Returns when the server closes the stream or the timeout hits; either way reconnect
+  http.get(`${BASE_URL}/api/notifications/stream`, {
+    ...authHeaders(data),
+    timeout: '120s',
+    tags: { name: 'stream' },
+  });
+}
+
+export function browseFeeds(data) {
+  const params = authHeaders(data);
+  let cursor = '';
+  for (let page = 0; page < 3; page++) {
+    const response = http.get(`${BASE_URL}/api/notes/public/feed?size=20${cursor}`,
+      { ...params, tags: { name: 'public feed' } });
+    if (!check(response, { 'feed ok': (r) => r.status === 200 })) {
+      return;
+    }
+    const next = response.json('nextCursor');
+    if (!next) {
+      break;
+    }
+    cursor = `&cursor=${encodeURIComponent(next)}`;
+  }
+  const timeline = http.get(`${BASE_URL}/api/notes/me/timeline?size=20`, { ...params, tags: { name: 'timeline' } });
+  check(timeline, { 'timeline ok': (r) => r.status === 200 });
+}
+
+export function probe() {
+  const response = http.get(`${BASE_URL}/api/auth/test`, { tags: { name: 'probe' } });
+  check(response, { 'probe ok': (r) => r.status === 200 });
+}
+
+function metric(summary, name, stat) {
+  const values = summary.metrics[name] && summary.metrics[name].values;
+  return values ? values[stat] : undefined;
+}
+
+export function handleSummary(summary) {
+  const result = {
+    mode: MODE,
+    probeP95Ms: metric(summary, 'http_req_duration{scenario:probe}', 'p(95)'),
+    feedP95Ms: metric(summary, 'http_req_duration{scenario:feeds}', 'p(95)'),
+    feedErrorRate: metric(summary, 'http_req_failed{scenario:feeds}', 'rate'),
+  };
+  return {
+    stdout: JSON.stringify(result) + '\n',
+    [`k6-${MODE}.json`]: JSON.stringify(summary, null, 2),
+  };
+}
@@ -0,0 +1,82 @@
+package com.notesphere.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+
+    /**
+     * Executor used to push events to live notification streams. Uses virtual threads
+     * when enabled and the runtime supports them, otherwise a small bounded pool.
+     */
+    @Bean(name = "notificationExecutor")
+    public Executor notificationExecutor(
+            @Value("${notesphere.notifications.virtual-threads:${notesphere.virtual-threads.enabled:false}}") boolean virtualThreads,
+            @Value("${notesphere.notifications.pool-size:4}") int poolSize,
+            @Value("${notesphere.notifications.pool-queue-capacity:10000}") int queueCapacity) {
+        if (virtualThreads) {
+            ExecutorService virtual = VirtualThreads.newExecutor();
+            if (virtual != null) {
+                return virtual;
+            }
+            log.warn("Virtual threads are not available on this runtime, falling back to a thread pool");
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("notification-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor for timeline fan-out. When the queue is full the committing thread
+     * does the fan-out itself rather than dropping it.
+     */
+    @Bean(name = "timelineExecutor")
+    public Executor timelineExecutor(
+            @Value("${notesphere.timeline.pool-size:2}") int poolSize,
+            @Value("${notesphere.timeline.pool-queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("timeline-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor for thumbnail generation. Decoding images is memory heavy, so the pool and its
+     * queue are small; work that does not fit is rejected and redone when a thumbnail is requested.
+     */
+    @Bean(name = "thumbnailExecutor")
+    public Executor thumbnailExecutor(
+            @Value("${notesphere.thumbnails.pool-size:2}") int poolSize,
+            @Value("${notesphere.thumbnails.pool-queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("thumbnail-");
+        executor.initialize();
+        return executor;
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.notesphere.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts a {@link ConcurrencyLimitingDataSource} in front of the connection pool. Enabled
+ * by default together with virtual threads, where nothing else bounds database concurrency.
+ * <p>
+ * The mssql-jdbc 11.2 driver managed by Spring Boot 3.1 does its socket I/O inside
+ * {@code synchronized} blocks, which pins a virtual thread to its carrier for the whole
+ * round trip. With virtual threads the permits are therefore capped one below the carrier
+ * parallelism, but never below two, so database calls cannot occupy every carrier. Drivers from 12.2 on use
+ * locks instead; with one of those set notesphere.db.limiter.cap-at-carriers=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "notesphere.db.limiter.enabled", havingValue = "true")
+public class DataSourceConfig {
+    private static final Logger log = LoggerFactory.getLogger(DataSourceConfig.class);
+    private static final int MIN_PERMITS = 2;
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(
+            Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+                // A permit holder may open one nested connection (REQUIRES_NEW), so half the pool by default
+                int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                int permits = environment.getProperty("notesphere.db.limiter.permits", Integer.class,
+                        Math.max(MIN_PERMITS, poolSize / 2));
+                if (environment.getProperty("notesphere.virtual-threads.enabled", Boolean.class, false)
+                        && environment.getProperty("notesphere.db.limiter.cap-at-carriers", Boolean.class, true)) {
+                    int carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                            Runtime.getRuntime().availableProcessors());
+                    int cap = Math.max(MIN_PERMITS, carriers - 1);
+                    if (permits > cap) {
+                        log.info("Capping database permits at {} of {} virtual thread carriers", cap, carriers);
+                        permits = cap;
+                    }
+                }
+                if (permits * 2 > poolSize) {
+                    log.warn("{} database permits leave no room in a pool of {} for nested transactions", permits, poolSize);
+                }
+                long timeoutMs = environment.getProperty("notesphere.db.limiter.acquire-timeout-ms", Long.class, 5000L);
+                ConcurrencyLimitingDataSource limited = new ConcurrencyLimitingDataSource(dataSource, permits, timeoutMs);
+
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                if (registry != null) {
+                    Gauge.builder("notesphere.db.limiter.available", limited,
+                            ConcurrencyLimitingDataSource::getAvailablePermits).register(registry);
+                    Gauge.builder("notesphere.db.limiter.waiting", limited,
+                            ConcurrencyLimitingDataSource::getQueueLength).register(registry);
+                }
+                log.info("Database access limited to {} concurrent connections for {}", permits, beanName);
+                return limited;
+            }
+        };
+    }
+}
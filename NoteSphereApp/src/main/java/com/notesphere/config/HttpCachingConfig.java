@@ -0,0 +1,31 @@
+package com.notesphere.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class HttpCachingConfig {
+
+    /**
+     * Feed pages are keyset queries over DTOs with no cheap version to compare, so their
+     * ETag is a hash of the rendered body: a matching If-None-Match still runs the query
+     * but sends a bodiless 304. Single notes, public repositories and categories compute
+     * their ETag before loading the response instead.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> feedEtagFilter() {
+        ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter();
+        filter.setWriteWeakETag(true);
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns(
+                "/api/notes",
+                "/api/notes/public/feed",
+                "/api/notes/me/feed",
+                "/api/notes/me/timeline",
+                "/api/repositories/public/feed",
+                "/api/repositories/me/feed");
+        return registration;
+    }
+}
@@ -0,0 +1,20 @@
+package com.notesphere.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * HTTP, repository, connection pool, Hibernate and JVM meters are registered by Spring Boot;
+ * this adds the aspect behind {@code @Timed} on service classes.
+ */
+@Configuration
+public class MetricsConfig {
+    public static final String SERVICE_TIMER = "notesphere.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
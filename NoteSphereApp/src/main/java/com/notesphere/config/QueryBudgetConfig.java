@@ -0,0 +1,56 @@
+package com.notesphere.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Per-request statement budget; see {@link QueryBudgetFilter}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "notesphere.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryBudgetConfig {
+
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(
+            StatementCounter statementCounter,
+            EntityManagerFactory entityManagerFactory,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${notesphere.query-budget.max-statements:20}") int maxStatements,
+            @Value("${notesphere.query-budget.max-entity-loads:500}") int maxEntityLoads,
+            @Value("${notesphere.query-budget.fail-on-exceed:false}") boolean failOnExceed,
+            @Value("${notesphere.query-budget.response-headers:false}") boolean responseHeaders) {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, statementCounter);
+
+        QueryBudgetFilter filter = new QueryBudgetFilter(statementCounter, meterRegistry.getIfAvailable(),
+                maxStatements, maxEntityLoads, failOnExceed, responseHeaders);
+        FilterRegistrationBean<QueryBudgetFilter> registration = new FilterRegistrationBean<>(filter);
+        // Ahead of Spring Security so the token lookup is counted too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,127 @@
+package com.notesphere.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Counts the statements and entity loads of each request and warns when they exceed the
+ * configured budget, which usually means an N+1 on a lazy association. With fail-on-exceed
+ * the request throws instead, for tests. The counts are recorded per endpoint and, when
+ * enabled, returned in response headers.
+ */
+public class QueryBudgetFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    public static final String STATEMENTS_HEADER = "X-Query-Count";
+    public static final String ENTITY_LOADS_HEADER = "X-Entity-Load-Count";
+
+    private final StatementCounter counter;
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final int maxEntityLoads;
+    private final boolean failOnExceed;
+    private final boolean responseHeaders;
+
+    public QueryBudgetFilter(StatementCounter counter, MeterRegistry meterRegistry,
+                             int maxStatements, int maxEntityLoads,
+                             boolean failOnExceed, boolean responseHeaders) {
+        this.counter = counter;
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.maxEntityLoads = maxEntityLoads;
+        this.failOnExceed = failOnExceed;
+        this.responseHeaders = responseHeaders;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementCounter.Counts counts = counter.start();
+        try {
+            filterChain.doFilter(request, responseHeaders ? new CountingHeadersResponse(response, counts) : response);
+        } finally {
+            counter.stop();
+        }
+
+        String endpoint = endpoint(request);
+        if (meterRegistry != null) {
+            record("notesphere.request.statements", request, endpoint, counts.getStatements());
+            record("notesphere.request.entity.loads", request, endpoint, counts.getEntityLoads());
+        }
+        if (counts.getStatements() > maxStatements || counts.getEntityLoads() > maxEntityLoads) {
+            String message = String.format("%s %s ran %d statements and loaded %d entities (budget %d/%d)",
+                    request.getMethod(), request.getRequestURI(), counts.getStatements(), counts.getEntityLoads(),
+                    maxStatements, maxEntityLoads);
+            if (failOnExceed) {
+                throw new IllegalStateException("Query budget exceeded: " + message);
+            }
+            log.warn("Query budget exceeded: {}", message);
+        }
+    }
+
+    private void record(String name, HttpServletRequest request, String endpoint, int amount) {
+        DistributionSummary.builder(name)
+                .tag("method", request.getMethod())
+                .tag("uri", endpoint)
+                .register(meterRegistry)
+                .record(amount);
+    }
+
+    private String endpoint(HttpServletRequest request) {
+        // The mapped pattern keeps path variables out of the tag values
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    /**
+     * Sets the count headers when the body is first requested, since after the chain the
+     * response is normally committed. Loads done while the body is serialized are therefore
+     * missing from the headers but not from the log and the metrics.
+     */
+    private static class CountingHeadersResponse extends HttpServletResponseWrapper {
+        private final StatementCounter.Counts counts;
+
+        CountingHeadersResponse(HttpServletResponse response, StatementCounter.Counts counts) {
+            super(response);
+            this.counts = counts;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            setCountHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            setCountHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            setCountHeaders();
+            super.flushBuffer();
+        }
+
+        private void setCountHeaders() {
+            if (!isCommitted()) {
+                setHeader(STATEMENTS_HEADER, String.valueOf(counts.getStatements()));
+                setHeader(ENTITY_LOADS_HEADER, String.valueOf(counts.getEntityLoads()));
+            }
+        }
+    }
+}
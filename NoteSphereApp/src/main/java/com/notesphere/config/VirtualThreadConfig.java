@@ -0,0 +1,45 @@
+package com.notesphere.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs request handling and Spring MVC async work (streamed exports) on virtual threads
+ * when notesphere.virtual-threads.enabled is set; needs a Java 21 runtime. Tomcat's
+ * thread count then no longer bounds how many requests reach the database at once, so
+ * this goes together with the connection limiter in {@link DataSourceConfig}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "notesphere.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+        ExecutorService executor = requireVirtualThreads();
+        log.info("Tomcat requests run on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(requireVirtualThreads());
+    }
+
+    private static ExecutorService requireVirtualThreads() {
+        ExecutorService executor = VirtualThreads.newExecutor();
+        if (executor == null) {
+            throw new IllegalStateException("notesphere.virtual-threads.enabled requires a Java 21 or later runtime");
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,26 @@
+package com.notesphere.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads while the build still targets Java 17 by default.
+ */
+final class VirtualThreads {
+    private VirtualThreads() {
+    }
+
+    /**
+     * A new thread-per-task executor on virtual threads, or null when the runtime has none.
+     */
+    static ExecutorService newExecutor() {
+        try {
+            // Looked up reflectively so the build keeps targeting Java 17
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+}
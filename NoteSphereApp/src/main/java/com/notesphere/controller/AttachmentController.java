@@ -0,0 +1,257 @@
+package com.notesphere.controller;
+
+import com.notesphere.dto.attachment.AttachmentResponse;
+import com.notesphere.model.Attachment;
+import com.notesphere.model.Note;
+import com.notesphere.model.PermissionType;
+import com.notesphere.model.User;
+import com.notesphere.repository.NoteRepository;
+import com.notesphere.repository.UserRepository;
+import com.notesphere.security.AccessEvaluator;
+import com.notesphere.service.AttachmentService;
+import com.notesphere.service.ThumbnailService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/notes/{noteId}/attachments")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AttachmentController {
+    // Tomcat sends the file with sendfile(2) after the request returns when these are set
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private AttachmentService attachmentService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccessEvaluator accessEvaluator;
+
+    @GetMapping
+    public ResponseEntity<List<AttachmentResponse>> getAttachments(
+            @PathVariable Long noteId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        if (!accessEvaluator.canReadNote(viewerId(userDetails), noteId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(attachmentService.getAttachments(noteId));
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<AttachmentResponse> addAttachment(
+            @PathVariable Long noteId,
+            @RequestParam("file") MultipartFile file,
+            @AuthenticationPrincipal UserDetails userDetails) throws IOException {
+        if (accessEvaluator.notePermission(viewerId(userDetails), noteId) != PermissionType.WRITE) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        Note note = noteRepository.getReferenceById(noteId);
+        return ResponseEntity.ok(attachmentService.addAttachment(note, file));
+    }
+
+    @DeleteMapping("/{attachmentId}")
+    public ResponseEntity<Void> deleteAttachment(
+            @PathVariable Long noteId,
+            @PathVariable Long attachmentId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        if (accessEvaluator.notePermission(viewerId(userDetails), noteId) != PermissionType.WRITE) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        attachmentService.deleteAttachment(noteId, attachmentId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Serves the attachment, or the single byte range asked for with a Range header.
+     */
+    @GetMapping("/{attachmentId}")
+    public void downloadAttachment(
+            @PathVariable Long noteId,
+            @PathVariable Long attachmentId,
+            @AuthenticationPrincipal UserDetails userDetails,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        if (!accessEvaluator.canReadNote(viewerId(userDetails), noteId)) {
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+        Attachment attachment = attachmentService.getAttachment(noteId, attachmentId);
+        Path path = attachmentService.getContentPath(attachment);
+        long size = Files.size(path);
+
+        // Only the raster types confirmed at upload are rendered by the browser; everything else is a download
+        boolean inline = attachmentService.isImage(attachment);
+        String contentType = attachment.getContentType() != null
+                ? attachment.getContentType()
+                : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        ContentDisposition disposition = (inline ? ContentDisposition.inline() : ContentDisposition.attachment())
+                .filename(attachment.getFilename(), StandardCharsets.UTF_8)
+                .build();
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.toString());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader("Content-Security-Policy", "sandbox");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Blobs are content-addressed, so the hash is a strong validator
+        response.setHeader(HttpHeaders.ETAG, "\"" + attachment.getSha256() + "\"");
+
+        long start = 0;
+        long end = size;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + size);
+            }
+        }
+        response.setContentLengthLong(end - start);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        transfer(path, start, end, request, response);
+    }
+
+    /**
+     * Serves a scaled JPEG of an image attachment. Thumbnails never change for a given blob
+     * and size, so they carry a strong ETag and may be cached for a year by the client.
+     */
+    @GetMapping("/{attachmentId}/thumbnail")
+    public ResponseEntity<Resource> getThumbnail(
+            @PathVariable Long noteId,
+            @PathVariable Long attachmentId,
+            @RequestParam(value = "size", defaultValue = "160") int size,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        if (!accessEvaluator.canReadNote(viewerId(userDetails), noteId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        Attachment attachment = attachmentService.getAttachment(noteId, attachmentId);
+        if (!attachmentService.isImage(attachment)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        int variant = thumbnailService.pickSize(size);
+        Optional<Path> thumbnail = thumbnailService.findThumbnail(attachment.getSha256(), variant);
+        if (thumbnail.isEmpty()) {
+            // Not generated yet: send the client to the original without letting it cache the answer
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .location(URI.create("/api/notes/" + noteId + "/attachments/" + attachmentId))
+                    .cacheControl(CacheControl.noStore())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .eTag("\"" + attachment.getSha256() + "-w" + variant + "\"")
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate())
+                .body(new FileSystemResource(thumbnail.get()));
+    }
+
+    private void transfer(Path path, long start, long end, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        if (end > start && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+
+    /**
+     * Returns {start, endExclusive} for a satisfiable single range, an empty array when the
+     * header should be ignored (multiple or malformed ranges) and null when it cannot be satisfied.
+     */
+    private long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long length = Long.parseLong(last);
+                if (length <= 0 || size == 0) {
+                    return null;
+                }
+                return new long[] {Math.max(0, size - length), size};
+            }
+            long start = Long.parseLong(first);
+            long lastByte = last.isEmpty() ? size - 1 : Long.parseLong(last);
+            if (lastByte < start) {
+                return new long[0];
+            }
+            if (start >= size) {
+                return null;
+            }
+            long end = Math.min(lastByte + 1, size);
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private Long viewerId(UserDetails userDetails) {
+        if (userDetails == null) {
+            return null;
+        }
+        return userRepository.findByUsername(userDetails.getUsername())
+                .map(User::getId)
+                .orElse(null);
+    }
+}
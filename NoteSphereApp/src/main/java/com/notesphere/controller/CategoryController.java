@@ -1,16 +1,21 @@
 package com.notesphere.controller;
 
-import com.notesphere.model.Category;
+import com.notesphere.dto.category.CategoryResponse;
 import com.notesphere.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/categories")
 public class CategoryController {
+    private static final CacheControl CATEGORIES_CACHE = CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic();
 
     private final CategoryService categoryService;
 
@@ -20,13 +25,18 @@ public class CategoryController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    public ResponseEntity<List<CategoryResponse>> getAllCategories(WebRequest webRequest) {
+        // The list comes from the query cache, so only serialization is saved here
+        List<CategoryResponse> categories = categoryService.getAllCategories();
+        String etag = categoryService.getCategoriesETag(categories);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CATEGORIES_CACHE).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CATEGORIES_CACHE).body(categories);
     }
 
     @PostMapping
-    public ResponseEntity<Category> createCategory(@RequestBody String name) {
-        Category category = categoryService.createOrGetCategory(name);
-        return ResponseEntity.ok(category);
+    public ResponseEntity<CategoryResponse> createCategory(@RequestBody String name) {
+        return ResponseEntity.ok(CategoryResponse.from(categoryService.createOrGetCategory(name)));
     }
 }
\ No newline at end of file
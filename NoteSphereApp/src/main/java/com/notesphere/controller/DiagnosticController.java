@@ -1,11 +1,17 @@
 package com.notesphere.controller;
 
+import com.notesphere.service.IndexAdvisor;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -16,6 +22,58 @@ public class DiagnosticController {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private IndexAdvisor indexAdvisor;
+
+    @GetMapping("/indexes")
+    public Map<String, Object> indexStatus() {
+        try {
+            List<IndexAdvisor.IndexDefinition> missing = indexAdvisor.findMissingIndexes();
+            return Map.of(
+                "expected", indexAdvisor.expectedIndexes(),
+                "missing", missing,
+                "status", missing.isEmpty() ? "ok" : "missing"
+            );
+        } catch (Exception e) {
+            return Map.of(
+                "status", "error",
+                "error", e.getMessage(),
+                "errorType", e.getClass().getName()
+            );
+        }
+    }
+
+    @GetMapping("/cache-stats")
+    public Map<String, Object> cacheStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            regions.put(regionName, Map.of(
+                "hits", region.getHitCount(),
+                "misses", region.getMissCount(),
+                "puts", region.getPutCount()
+            ));
+        }
+
+        return Map.of(
+            "secondLevelHits", statistics.getSecondLevelCacheHitCount(),
+            "secondLevelMisses", statistics.getSecondLevelCacheMissCount(),
+            "naturalIdHits", statistics.getNaturalIdCacheHitCount(),
+            "naturalIdMisses", statistics.getNaturalIdCacheMissCount(),
+            "queryCacheHits", statistics.getQueryCacheHitCount(),
+            "queryCacheMisses", statistics.getQueryCacheMissCount(),
+            "regions", regions
+        );
+    }
+
     @GetMapping("/db-status")
     public Map<String, Object> checkDatabaseStatus() {
         try {
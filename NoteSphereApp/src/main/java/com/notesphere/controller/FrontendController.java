@@ -8,7 +8,6 @@ public class FrontendController {
 
     @RequestMapping(value = {"/{path:[^\\.]*}", "/", "/login", "/register", "/profile", "/repositories", "/search", "/add-note"})
     public String forward() {
-        System.out.println("FrontendController is triggered");
         return "forward:/index.html";
     }
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.notesphere.controller;
+
+import com.notesphere.dto.CursorPageResponse;
+import com.notesphere.dto.FeedCursor;
+import com.notesphere.dto.message.ConversationResponse;
+import com.notesphere.dto.message.MessageRequest;
+import com.notesphere.dto.message.MessageResponse;
+import com.notesphere.dto.message.MessageStatusUpdateResponse;
+import com.notesphere.model.Message;
+import com.notesphere.model.MessageStatus;
+import com.notesphere.model.User;
+import com.notesphere.service.MessageService;
+import com.notesphere.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/messages")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class MessageController {
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping("/conversations")
+    public ResponseEntity<CursorPageResponse<ConversationResponse>> getInbox(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "" + FeedCursor.DEFAULT_SIZE) int size,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        User user = userService.getUserByUsername(userDetails.getUsername());
+        return ResponseEntity.ok(messageService.getInbox(user, cursor, size));
+    }
+
+    @GetMapping("/conversations/{username}")
+    public ResponseEntity<CursorPageResponse<MessageResponse>> getConversation(
+            @PathVariable String username,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "" + FeedCursor.DEFAULT_SIZE) int size,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        User user = userService.getUserByUsername(userDetails.getUsername());
+        User peer = userService.getUserByUsername(username);
+        return ResponseEntity.ok(messageService.getConversation(user, peer, cursor, size));
+    }
+
+    @PostMapping
+    public ResponseEntity<MessageResponse> sendMessage(
+            @RequestBody MessageRequest messageRequest,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        if (messageRequest.getContent() == null || messageRequest.getContent().isBlank()) {
+            throw new IllegalArgumentException("Message content is required");
+        }
+        User sender = userService.getUserByUsername(userDetails.getUsername());
+        User receiver = userService.getUserByUsername(messageRequest.getReceiverUsername());
+        Message message = messageService.sendMessage(sender, receiver, messageRequest.getContent());
+        return ResponseEntity.ok(messageService.toMessageResponse(message, sender, receiver));
+    }
+
+    @PostMapping("/conversations/{username}/delivered")
+    public ResponseEntity<MessageStatusUpdateResponse> markConversationDelivered(
+            @PathVariable String username,
+            @RequestParam(value = "upTo", required = false) Long upToMessageId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        User user = userService.getUserByUsername(userDetails.getUsername());
+        User peer = userService.getUserByUsername(username);
+        return ResponseEntity.ok(messageService.markConversation(user, peer, upToMessageId, MessageStatus.DELIVERED));
+    }
+
+    @PostMapping("/conversations/{username}/read")
+    public ResponseEntity<MessageStatusUpdateResponse> markConversationRead(
+            @PathVariable String username,
+            @RequestParam(value = "upTo", required = false) Long upToMessageId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        User user = userService.getUserByUsername(userDetails.getUsername());
+        User peer = userService.getUserByUsername(username);
+        return ResponseEntity.ok(messageService.markConversation(user, peer, upToMessageId, MessageStatus.READ));
+    }
+
+    @PutMapping("/{messageId}/read")
+    public ResponseEntity<?> markAsRead(
+            @PathVariable Long messageId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        messageService.markAsRead(userService.getUserByUsername(userDetails.getUsername()), messageId);
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping("/{messageId}")
+    public ResponseEntity<?> deleteMessage(
+            @PathVariable Long messageId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        messageService.deleteMessage(userService.getUserByUsername(userDetails.getUsername()), messageId);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -1,27 +1,40 @@
 package com.notesphere.controller;
 
-import com.notesphere.model.Note;
-import com.notesphere.model.Category;
+import com.notesphere.dto.CursorPageResponse;
+import com.notesphere.dto.FeedCursor;
+import com.notesphere.dto.note.BulkImportResponse;
+import com.notesphere.dto.note.NoteResponse;
 import com.notesphere.model.User;
-import com.notesphere.model.Visibility;
 import com.notesphere.repository.NoteRepository;
 import com.notesphere.repository.CategoryRepository;
 import com.notesphere.repository.UserRepository;
+import com.notesphere.security.AccessEvaluator;
+import com.notesphere.service.NoteBulkService;
+import com.notesphere.service.NoteService;
+import com.notesphere.service.TimelineService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
+import java.io.IOException;
+import java.util.Arrays;
 
 @RestController
 @RequestMapping("/api/notes")
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class NoteController {
+    private static final String NDJSON = "application/x-ndjson";
+    // Responses depend on the viewer and change often: clients keep them but revalidate every time
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
 
     @Autowired
     private NoteRepository noteRepository;
@@ -32,23 +45,96 @@ public class NoteController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private NoteBulkService noteBulkService;
+
+    @Autowired
+    private AccessEvaluator accessEvaluator;
+
+    @Autowired
+    private TimelineService timelineService;
+
     @GetMapping
-    public ResponseEntity<List<Note>> getAllNotes(@RequestParam(value = "categoryId", required = false) Long categoryId) {
-        if (categoryId != null) {
-            Optional<Category> category = categoryRepository.findById(categoryId);
-            if (category.isPresent()) {
-                return ResponseEntity.ok(noteRepository.findAllByCategory(category.get()));
-            } else {
-                return ResponseEntity.badRequest().build();
-            }
+    public ResponseEntity<CursorPageResponse<NoteResponse>> getAllNotes(
+            @RequestParam(value = "categoryId", required = false) Long categoryId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "" + FeedCursor.DEFAULT_SIZE) int size,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        if (categoryId != null && !categoryRepository.existsById(categoryId)) {
+            return ResponseEntity.badRequest().build();
         }
-        return ResponseEntity.ok(noteRepository.findAll());
+        String username = userDetails != null ? userDetails.getUsername() : null;
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(noteService.getNotesFeed(categoryId, cursor, size, username));
+    }
+
+    @GetMapping("/public/feed")
+    public ResponseEntity<CursorPageResponse<NoteResponse>> getPublicNotesFeed(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "" + FeedCursor.DEFAULT_SIZE) int size,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        String username = userDetails != null ? userDetails.getUsername() : null;
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(noteService.getPublicNotesFeed(cursor, size, username));
+    }
+
+    @GetMapping("/me/feed")
+    public ResponseEntity<CursorPageResponse<NoteResponse>> getUserNotesFeed(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "" + FeedCursor.DEFAULT_SIZE) int size,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok().cacheControl(REVALIDATE)
+                .body(noteService.getUserNotesFeed(userDetails.getUsername(), cursor, size));
+    }
+
+    @GetMapping("/me/timeline")
+    public ResponseEntity<CursorPageResponse<NoteResponse>> getHomeTimeline(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "" + FeedCursor.DEFAULT_SIZE) int size,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok().cacheControl(REVALIDATE)
+                .body(timelineService.getHomeTimeline(userDetails.getUsername(), cursor, size));
+    }
+
+    @PostMapping(value = "/bulk", consumes = {NDJSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<BulkImportResponse> importNotes(
+            HttpServletRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) throws IOException {
+        long imported = noteBulkService.importNotes(request.getInputStream(), userDetails.getUsername());
+        return ResponseEntity.ok(new BulkImportResponse(imported));
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportNotes(@AuthenticationPrincipal UserDetails userDetails) {
+        String username = userDetails.getUsername();
+        StreamingResponseBody body = out -> noteBulkService.exportNotes(username, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .header("Content-Disposition", "attachment; filename=\"notes.ndjson\"")
+                .body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Note> getNoteById(@PathVariable Long id) {
-        Optional<Note> note = noteRepository.findById(id);
-        return note.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    public ResponseEntity<NoteResponse> getNoteById(@PathVariable Long id,
+                                                    @AuthenticationPrincipal UserDetails userDetails,
+                                                    WebRequest webRequest) {
+        String username = userDetails == null ? null : userDetails.getUsername();
+        String etag = noteService.getNoteETag(id, username);
+        if (etag == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Long viewerId = userDetails == null ? null : userRepository.findByUsername(userDetails.getUsername())
+                .map(User::getId)
+                .orElse(null);
+        if (!accessEvaluator.canReadNote(viewerId, id)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(noteService.getNoteResponse(id, username));
     }
 
     @DeleteMapping("/{id}")
@@ -71,27 +157,8 @@ public class NoteController {
             @AuthenticationPrincipal UserDetails userDetails
     ) {
         try {
-            // Get user
-            User user = userRepository.findByUsername(userDetails.getUsername())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            // Create note
-            Note note = new Note();
-            note.setTitle(title);
-            note.setContent(content);
-            note.setCreator(user);
-            note.setCreatedAt(LocalDateTime.now());
-            note.setVisibility(Visibility.fromString(visibility));
-
-            // Set category if provided
-            if (categoryId != null) {
-                Category category = categoryRepository.findById(categoryId)
-                        .orElseThrow(() -> new RuntimeException("Category not found"));
-                note.setCategory(category);
-            }
-
-            Note saved = noteRepository.save(note);
-            return ResponseEntity.ok(saved);
+            return ResponseEntity.ok(noteService.uploadNote(userDetails.getUsername(), title, content,
+                    categoryId, visibility, Arrays.asList(image, file)));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
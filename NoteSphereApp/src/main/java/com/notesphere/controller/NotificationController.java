@@ -0,0 +1,30 @@
+package com.notesphere.controller;
+
+import com.notesphere.model.User;
+import com.notesphere.repository.UserRepository;
+import com.notesphere.service.NotificationHub;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/notifications")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class NotificationController {
+
+    @Autowired
+    private NotificationHub notificationHub;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal UserDetails userDetails) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return notificationHub.subscribe(user.getId());
+    }
+}
@@ -1,5 +1,7 @@
 package com.notesphere.controller;
 
+import com.notesphere.dto.CursorPageResponse;
+import com.notesphere.dto.FeedCursor;
 import com.notesphere.dto.repository.RepositoryRequest;
 import com.notesphere.dto.repository.RepositoryResponse;
 import com.notesphere.service.RepositoryService;
@@ -7,15 +9,22 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/repositories")
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class RepositoryController {
+    private static final CacheControl PUBLIC_LIST_CACHE = CacheControl.maxAge(30, TimeUnit.SECONDS).cachePublic();
+    private static final CacheControl FEED_CACHE = CacheControl.noCache().cachePrivate();
 
     @Autowired
     private RepositoryService repositoryService;
@@ -39,9 +48,30 @@ public class RepositoryController {
     @GetMapping("/public")
     public ResponseEntity<Page<RepositoryResponse>> getPublicRepositories(
             @AuthenticationPrincipal UserDetails userDetails,
-            Pageable pageable) {
+            Pageable pageable,
+            WebRequest webRequest) {
+        String etag = repositoryService.getPublicRepositoriesETag(pageable);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(PUBLIC_LIST_CACHE).build();
+        }
         Page<RepositoryResponse> repositories = repositoryService.getPublicRepositories(pageable, userDetails.getUsername());
-        return ResponseEntity.ok(repositories);
+        return ResponseEntity.ok().eTag(etag).cacheControl(PUBLIC_LIST_CACHE).body(repositories);
+    }
+
+    @GetMapping("/public/feed")
+    public ResponseEntity<CursorPageResponse<RepositoryResponse>> getPublicRepositoriesFeed(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "" + FeedCursor.DEFAULT_SIZE) int size) {
+        return ResponseEntity.ok().cacheControl(FEED_CACHE).body(repositoryService.getPublicRepositoriesFeed(cursor, size));
+    }
+
+    @GetMapping("/me/feed")
+    public ResponseEntity<CursorPageResponse<RepositoryResponse>> getUserRepositoriesFeed(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "" + FeedCursor.DEFAULT_SIZE) int size) {
+        return ResponseEntity.ok().cacheControl(FEED_CACHE)
+                .body(repositoryService.getUserRepositoriesFeed(userDetails.getUsername(), cursor, size));
     }
 
     @PostMapping
@@ -0,0 +1,57 @@
+package com.notesphere.controller;
+
+import com.notesphere.dto.note.NoteResponse;
+import com.notesphere.dto.repository.RepositoryResponse;
+import com.notesphere.dto.user.UserSummaryResponse;
+import com.notesphere.service.NoteService;
+import com.notesphere.service.RepositoryService;
+import com.notesphere.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class SearchController {
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping("/notes")
+    public ResponseEntity<Page<NoteResponse>> searchNotes(
+            @RequestParam("q") String query,
+            @AuthenticationPrincipal UserDetails userDetails,
+            Pageable pageable) {
+        return ResponseEntity.ok(noteService.searchNotes(query, usernameOf(userDetails), pageable));
+    }
+
+    @GetMapping("/repositories")
+    public ResponseEntity<Page<RepositoryResponse>> searchRepositories(
+            @RequestParam("q") String query,
+            @AuthenticationPrincipal UserDetails userDetails,
+            Pageable pageable) {
+        return ResponseEntity.ok(repositoryService.searchRepositories(query, usernameOf(userDetails), pageable));
+    }
+
+    @GetMapping("/users")
+    public ResponseEntity<Page<UserSummaryResponse>> searchUsers(
+            @RequestParam("q") String query,
+            Pageable pageable) {
+        return ResponseEntity.ok(userService.searchUsers(query, pageable));
+    }
+
+    private String usernameOf(UserDetails userDetails) {
+        return userDetails != null ? userDetails.getUsername() : null;
+    }
+}
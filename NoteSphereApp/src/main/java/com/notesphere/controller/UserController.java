@@ -1,5 +1,6 @@
 package com.notesphere.controller;
 
+import com.notesphere.dto.user.UserProfileResponse;
 import com.notesphere.model.User;
 import com.notesphere.model.Friendship;
 import com.notesphere.model.FriendshipStatus;
@@ -19,13 +20,10 @@ public class UserController {
     private UserRepository userRepository;
 
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<UserProfileResponse> getCurrentUser(@AuthenticationPrincipal UserDetails userDetails) {
         User user = userRepository.findByUsername(userDetails.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        // Password'ü null yaparak client'a göndermicez
-        user.setPassword(null);
-        return ResponseEntity.ok(user);
+        return ResponseEntity.ok(UserProfileResponse.from(user));
     }
 
     @PostMapping("/friends/{username}")
@@ -0,0 +1,62 @@
+package com.notesphere.dto.attachment;
+
+import java.time.LocalDateTime;
+
+public class AttachmentResponse {
+    private Long id;
+    private String filename;
+    private String contentType;
+    private long sizeBytes;
+    private LocalDateTime createdAt;
+
+    public AttachmentResponse() {
+    }
+
+    public AttachmentResponse(Long id, String filename, String contentType, long sizeBytes, LocalDateTime createdAt) {
+        this.id = id;
+        this.filename = filename;
+        this.contentType = contentType;
+        this.sizeBytes = sizeBytes;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,36 @@
+package com.notesphere.dto.category;
+
+import com.notesphere.model.Category;
+
+public class CategoryResponse {
+    private Long id;
+    private String name;
+
+    public CategoryResponse() {
+    }
+
+    public CategoryResponse(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public static CategoryResponse from(Category category) {
+        return new CategoryResponse(category.getId(), category.getName());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
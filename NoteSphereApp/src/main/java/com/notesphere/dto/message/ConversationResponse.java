@@ -0,0 +1,62 @@
+package com.notesphere.dto.message;
+
+import com.notesphere.model.Conversation;
+import java.time.LocalDateTime;
+
+public class ConversationResponse {
+    private String peerUsername;
+    private Long lastMessageId;
+    private String lastMessagePreview;
+    private LocalDateTime lastMessageAt;
+    private int unreadCount;
+
+    public static ConversationResponse from(Conversation conversation) {
+        ConversationResponse response = new ConversationResponse();
+        response.setPeerUsername(conversation.getPeer().getUsername());
+        response.setLastMessageId(conversation.getLastMessageId());
+        response.setLastMessagePreview(conversation.getLastMessagePreview());
+        response.setLastMessageAt(conversation.getLastMessageAt());
+        response.setUnreadCount(conversation.getUnreadCount());
+        return response;
+    }
+
+    public String getPeerUsername() {
+        return peerUsername;
+    }
+
+    public void setPeerUsername(String peerUsername) {
+        this.peerUsername = peerUsername;
+    }
+
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public void setLastMessageId(Long lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+
+    public String getLastMessagePreview() {
+        return lastMessagePreview;
+    }
+
+    public void setLastMessagePreview(String lastMessagePreview) {
+        this.lastMessagePreview = lastMessagePreview;
+    }
+
+    public LocalDateTime getLastMessageAt() {
+        return lastMessageAt;
+    }
+
+    public void setLastMessageAt(LocalDateTime lastMessageAt) {
+        this.lastMessageAt = lastMessageAt;
+    }
+
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(int unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+}
@@ -0,0 +1,63 @@
+package com.notesphere.dto.message;
+
+import com.notesphere.model.MessageStatus;
+import java.time.LocalDateTime;
+
+public class MessageReceiptResponse {
+    private String username;
+    private MessageStatus status;
+    private Long upToMessageId;
+    private LocalDateTime upTo;
+    private int updatedCount;
+
+    public MessageReceiptResponse() {
+    }
+
+    public MessageReceiptResponse(String username, MessageStatus status, Long upToMessageId, LocalDateTime upTo, int updatedCount) {
+        this.username = username;
+        this.status = status;
+        this.upToMessageId = upToMessageId;
+        this.upTo = upTo;
+        this.updatedCount = updatedCount;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public MessageStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(MessageStatus status) {
+        this.status = status;
+    }
+
+    public Long getUpToMessageId() {
+        return upToMessageId;
+    }
+
+    public void setUpToMessageId(Long upToMessageId) {
+        this.upToMessageId = upToMessageId;
+    }
+
+    public LocalDateTime getUpTo() {
+        return upTo;
+    }
+
+    public void setUpTo(LocalDateTime upTo) {
+        this.upTo = upTo;
+    }
+
+    public int getUpdatedCount() {
+        return updatedCount;
+    }
+
+    public void setUpdatedCount(int updatedCount) {
+        this.updatedCount = updatedCount;
+    }
+}
@@ -0,0 +1,22 @@
+package com.notesphere.dto.message;
+
+public class MessageRequest {
+    private String receiverUsername;
+    private String content;
+
+    public String getReceiverUsername() {
+        return receiverUsername;
+    }
+
+    public void setReceiverUsername(String receiverUsername) {
+        this.receiverUsername = receiverUsername;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+}
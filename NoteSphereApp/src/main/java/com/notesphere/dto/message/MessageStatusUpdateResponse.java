@@ -0,0 +1,40 @@
+package com.notesphere.dto.message;
+
+public class MessageStatusUpdateResponse {
+    private int updatedCount;
+    private int conversationUnreadCount;
+    private long totalUnreadCount;
+
+    public MessageStatusUpdateResponse() {
+    }
+
+    public MessageStatusUpdateResponse(int updatedCount, int conversationUnreadCount, long totalUnreadCount) {
+        this.updatedCount = updatedCount;
+        this.conversationUnreadCount = conversationUnreadCount;
+        this.totalUnreadCount = totalUnreadCount;
+    }
+
+    public int getUpdatedCount() {
+        return updatedCount;
+    }
+
+    public void setUpdatedCount(int updatedCount) {
+        this.updatedCount = updatedCount;
+    }
+
+    public int getConversationUnreadCount() {
+        return conversationUnreadCount;
+    }
+
+    public void setConversationUnreadCount(int conversationUnreadCount) {
+        this.conversationUnreadCount = conversationUnreadCount;
+    }
+
+    public long getTotalUnreadCount() {
+        return totalUnreadCount;
+    }
+
+    public void setTotalUnreadCount(long totalUnreadCount) {
+        this.totalUnreadCount = totalUnreadCount;
+    }
+}
@@ -0,0 +1,17 @@
+package com.notesphere.dto.note;
+
+public class BulkImportResponse {
+    private long imported;
+
+    public BulkImportResponse(long imported) {
+        this.imported = imported;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+}
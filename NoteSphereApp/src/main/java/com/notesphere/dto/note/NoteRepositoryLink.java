@@ -0,0 +1,7 @@
+package com.notesphere.dto.note;
+
+public interface NoteRepositoryLink {
+    Long getNoteId();
+    Long getRepositoryId();
+    String getRepositoryName();
+}
@@ -2,6 +2,7 @@ package com.notesphere.dto.note;
 
 import com.notesphere.model.Visibility;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 public class NoteResponse {
@@ -11,12 +12,33 @@ public class NoteResponse {
     private String creatorUsername;
     private Visibility visibility;
     private int likesCount;
+    private int commentsCount;
     private boolean likedByCurrentUser;
     private List<Long> repositoryIds;
     private List<String> repositoryNames;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    public NoteResponse() {
+    }
+
+    // Used by the feed projection queries in NoteRepository
+    public NoteResponse(Long id, String title, String content, String creatorUsername, Visibility visibility,
+                        Long likesCount, Long commentsCount, Boolean likedByCurrentUser, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.creatorUsername = creatorUsername;
+        this.visibility = visibility;
+        this.likesCount = likesCount != null ? likesCount.intValue() : 0;
+        this.commentsCount = commentsCount != null ? commentsCount.intValue() : 0;
+        this.likedByCurrentUser = Boolean.TRUE.equals(likedByCurrentUser);
+        this.repositoryIds = new ArrayList<>();
+        this.repositoryNames = new ArrayList<>();
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
     public Long getId() {
         return id;
     }
@@ -65,6 +87,14 @@ public class NoteResponse {
         this.likesCount = likesCount;
     }
 
+    public int getCommentsCount() {
+        return commentsCount;
+    }
+
+    public void setCommentsCount(int commentsCount) {
+        this.commentsCount = commentsCount;
+    }
+
     public boolean isLikedByCurrentUser() {
         return likedByCurrentUser;
     }
@@ -0,0 +1,15 @@
+package com.notesphere.dto.note;
+
+import java.time.LocalDateTime;
+
+/**
+ * The fields of a note response that can change, read without the note content.
+ * Repository links are read separately, see {@code NoteService.getNoteETag}.
+ */
+public interface NoteVersion {
+    Long getId();
+    LocalDateTime getUpdatedAt();
+    Long getLikesCount();
+    Long getCommentsCount();
+    Boolean getLiked();
+}
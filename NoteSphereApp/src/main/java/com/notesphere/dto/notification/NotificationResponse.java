@@ -0,0 +1,84 @@
+package com.notesphere.dto.notification;
+
+import com.notesphere.model.Notification;
+import com.notesphere.model.NotificationType;
+import com.notesphere.model.ReferenceType;
+import java.time.LocalDateTime;
+
+public class NotificationResponse {
+    private Long id;
+    private NotificationType type;
+    private Long referenceId;
+    private ReferenceType referenceType;
+    private String content;
+    private boolean read;
+    private LocalDateTime createdAt;
+
+    public static NotificationResponse from(Notification notification) {
+        NotificationResponse response = new NotificationResponse();
+        response.setId(notification.getId());
+        response.setType(notification.getType());
+        response.setReferenceId(notification.getReferenceId());
+        response.setReferenceType(notification.getReferenceType());
+        response.setContent(notification.getContent());
+        response.setRead(notification.isRead());
+        response.setCreatedAt(notification.getCreatedAt());
+        return response;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public NotificationType getType() {
+        return type;
+    }
+
+    public void setType(NotificationType type) {
+        this.type = type;
+    }
+
+    public Long getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(Long referenceId) {
+        this.referenceId = referenceId;
+    }
+
+    public ReferenceType getReferenceType() {
+        return referenceType;
+    }
+
+    public void setReferenceType(ReferenceType referenceType) {
+        this.referenceType = referenceType;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public boolean isRead() {
+        return read;
+    }
+
+    public void setRead(boolean read) {
+        this.read = read;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
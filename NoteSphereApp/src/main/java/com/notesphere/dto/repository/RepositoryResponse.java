@@ -10,6 +10,8 @@ public class RepositoryResponse {
     private String creatorUsername;
     private Visibility visibility;
     private int notesCount;
+    private int likesCount;
+    private int followersCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -61,6 +63,22 @@ public class RepositoryResponse {
         this.notesCount = notesCount;
     }
 
+    public int getLikesCount() {
+        return likesCount;
+    }
+
+    public void setLikesCount(int likesCount) {
+        this.likesCount = likesCount;
+    }
+
+    public int getFollowersCount() {
+        return followersCount;
+    }
+
+    public void setFollowersCount(int followersCount) {
+        this.followersCount = followersCount;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
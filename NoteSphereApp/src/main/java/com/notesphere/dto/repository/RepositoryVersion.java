@@ -0,0 +1,14 @@
+package com.notesphere.dto.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * The fields of a repository response that can change.
+ */
+public interface RepositoryVersion {
+    Long getId();
+    LocalDateTime getUpdatedAt();
+    long getLikesCount();
+    long getFollowersCount();
+    long getNotesCount();
+}
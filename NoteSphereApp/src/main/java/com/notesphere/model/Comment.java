@@ -7,7 +7,8 @@ import java.time.LocalDateTime;
 @Table(name = "comments", schema = "dbo")
 public class Comment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", schema = "dbo", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -4,10 +4,14 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "follows", schema = "dbo")
+@Table(name = "follows", schema = "dbo",
+        uniqueConstraints = @UniqueConstraint(
+                name = "UQ_follows_follower_followed", columnNames = {"follower_id", "followed_id"}),
+        indexes = @Index(name = "IX_follows_followed", columnList = "followed_id"))
 public class Follow {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "follows_seq")
+    @SequenceGenerator(name = "follows_seq", sequenceName = "follows_seq", schema = "dbo", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -7,7 +7,8 @@ import java.time.LocalDateTime;
 @Table(name = "friendships", schema = "dbo")
 public class Friendship {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "friendships_seq")
+    @SequenceGenerator(name = "friendships_seq", sequenceName = "friendships_seq", schema = "dbo", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -4,10 +4,14 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "likes", schema = "dbo")
+@Table(name = "likes", schema = "dbo",
+        uniqueConstraints = @UniqueConstraint(
+                name = "UQ_likes_user_likeable", columnNames = {"user_id", "likeable_id", "likeable_type"}),
+        indexes = @Index(name = "IX_likes_likeable", columnList = "likeable_id, likeable_type"))
 public class Like {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "likes_seq")
+    @SequenceGenerator(name = "likes_seq", sequenceName = "likes_seq", schema = "dbo", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -5,10 +5,12 @@ import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "messages", schema = "dbo")
+@Table(name = "messages", schema = "dbo",
+        indexes = @Index(name = "IX_messages_sender_receiver_created", columnList = "sender_id, receiver_id, createdAt"))
 public class Message {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "messages_seq")
+    @SequenceGenerator(name = "messages_seq", sequenceName = "messages_seq", schema = "dbo", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,5 +1,6 @@
 package com.notesphere.model;
 
+import com.notesphere.search.SearchIndexEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
@@ -7,10 +8,15 @@ import java.util.*;
 import org.hibernate.annotations.Where;
 
 @Entity
-@Table(name = "notes", schema = "dbo")
+@Table(name = "notes", schema = "dbo", indexes = {
+        @Index(name = "IX_notes_visibility_created", columnList = "visibility, createdAt"),
+        @Index(name = "IX_notes_creator_created", columnList = "creator_id, createdAt")
+})
+@EntityListeners(SearchIndexEntityListener.class)
 public class Note {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notes_seq")
+    @SequenceGenerator(name = "notes_seq", sequenceName = "notes_seq", schema = "dbo", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -49,6 +55,13 @@ public class Note {
     )
     private List<NoteRepository> repositories = new ArrayList<>();
 
+    // Denormalized counters, only ever changed through the atomic UPDATE queries in NoteRepository
+    @Column(nullable = false, updatable = false)
+    private long likesCount = 0;
+
+    @Column(nullable = false, updatable = false)
+    private long commentsCount = 0;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDateTime deletedAt;
@@ -136,6 +149,22 @@ public class Note {
         this.repositories = repositories;
     }
 
+    public long getLikesCount() {
+        return likesCount;
+    }
+
+    public void setLikesCount(long likesCount) {
+        this.likesCount = likesCount;
+    }
+
+    public long getCommentsCount() {
+        return commentsCount;
+    }
+
+    public void setCommentsCount(long commentsCount) {
+        this.commentsCount = commentsCount;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -1,16 +1,23 @@
 package com.notesphere.model;
 
+import com.notesphere.search.SearchIndexEntityListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Where;
 
 @Entity
 @Table(name = "note_repositories", schema = "dbo")
+@EntityListeners(SearchIndexEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "repositories")
 public class NoteRepository {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "note_repositories_seq")
+    @SequenceGenerator(name = "note_repositories_seq", sequenceName = "note_repositories_seq", schema = "dbo", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -40,6 +47,16 @@ public class NoteRepository {
     @Where(clause = "likeable_type = 'REPOSITORY'")
     private List<Like> likes = new ArrayList<>();
 
+    // Denormalized counters, only ever changed through the atomic UPDATE queries in RepositoryRepository
+    @Column(nullable = false, updatable = false)
+    private long likesCount = 0;
+
+    @Column(nullable = false, updatable = false)
+    private long followersCount = 0;
+
+    @Column(nullable = false, updatable = false)
+    private long notesCount = 0;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDateTime deletedAt;
@@ -127,6 +144,30 @@ public class NoteRepository {
         this.likes = likes;
     }
 
+    public long getLikesCount() {
+        return likesCount;
+    }
+
+    public void setLikesCount(long likesCount) {
+        this.likesCount = likesCount;
+    }
+
+    public long getFollowersCount() {
+        return followersCount;
+    }
+
+    public void setFollowersCount(long followersCount) {
+        this.followersCount = followersCount;
+    }
+
+    public long getNotesCount() {
+        return notesCount;
+    }
+
+    public void setNotesCount(long notesCount) {
+        this.notesCount = notesCount;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
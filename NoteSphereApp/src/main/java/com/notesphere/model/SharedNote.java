@@ -1,13 +1,17 @@
 package com.notesphere.model;
 
+import com.notesphere.search.SearchIndexEntityListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "shared_notes", schema = "dbo")
+@Table(name = "shared_notes", schema = "dbo",
+        indexes = @Index(name = "IX_shared_notes_note_user", columnList = "note_id, user_id"))
+@EntityListeners(SearchIndexEntityListener.class)
 public class SharedNote {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shared_notes_seq")
+    @SequenceGenerator(name = "shared_notes_seq", sequenceName = "shared_notes_seq", schema = "dbo", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,13 +1,16 @@
 package com.notesphere.model;
 
+import com.notesphere.search.SearchIndexEntityListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "shared_repositories", schema = "dbo")
+@EntityListeners(SearchIndexEntityListener.class)
 public class SharedRepository {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shared_repositories_seq")
+    @SequenceGenerator(name = "shared_repositories_seq", sequenceName = "shared_repositories_seq", schema = "dbo", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,50 @@
+package com.notesphere.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A note pushed to a follower's home timeline. Rows are written by set-based
+ * INSERT ... SELECT statements in TimelineEntryRepository; createdAt is the
+ * note's creation time so pushed and pulled notes share one ordering.
+ */
+@Entity
+@Table(name = "timeline_entries", schema = "dbo",
+        indexes = @Index(name = "IX_timeline_entries_user_created", columnList = "user_id, createdAt, note_id"))
+public class TimelineEntry {
+    @EmbeddedId
+    private TimelineEntryId id;
+
+    @Column(name = "repository_id", nullable = false)
+    private Long repositoryId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public TimelineEntry() {
+    }
+
+    public TimelineEntryId getId() {
+        return id;
+    }
+
+    public void setId(TimelineEntryId id) {
+        this.id = id;
+    }
+
+    public Long getRepositoryId() {
+        return repositoryId;
+    }
+
+    public void setRepositoryId(Long repositoryId) {
+        this.repositoryId = repositoryId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,55 @@
+package com.notesphere.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.io.Serializable;
+import java.util.Objects;
+
+@Embeddable
+public class TimelineEntryId implements Serializable {
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "note_id", nullable = false)
+    private Long noteId;
+
+    public TimelineEntryId() {
+    }
+
+    public TimelineEntryId(Long userId, Long noteId) {
+        this.userId = userId;
+        this.noteId = noteId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public void setNoteId(Long noteId) {
+        this.noteId = noteId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TimelineEntryId other)) {
+            return false;
+        }
+        return Objects.equals(userId, other.userId) && Objects.equals(noteId, other.noteId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, noteId);
+    }
+}
@@ -0,0 +1,21 @@
+package com.notesphere.repository;
+
+import com.notesphere.dto.attachment.AttachmentResponse;
+import com.notesphere.model.Attachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
+    @Query("SELECT new com.notesphere.dto.attachment.AttachmentResponse(a.id, a.filename, a.contentType, a.sizeBytes, a.createdAt) " +
+           "FROM Attachment a WHERE a.note.id = :noteId ORDER BY a.id")
+    List<AttachmentResponse> findResponsesByNoteId(Long noteId);
+
+    Optional<Attachment> findByIdAndNoteId(Long id, Long noteId);
+
+    @Query("SELECT DISTINCT a.sha256 FROM Attachment a WHERE a.sha256 IN :hashes")
+    List<String> findReferencedSha256In(Collection<String> hashes);
+}
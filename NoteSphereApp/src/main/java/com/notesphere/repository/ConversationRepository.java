@@ -0,0 +1,55 @@
+package com.notesphere.repository;
+
+import com.notesphere.model.Conversation;
+import com.notesphere.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+
+    @Query("SELECT c FROM Conversation c JOIN FETCH c.peer WHERE c.user.id = :userId " +
+           "ORDER BY c.lastMessageAt DESC, c.id DESC")
+    Slice<Conversation> findInboxFirstSlice(Long userId, Pageable pageable);
+
+    @Query("SELECT c FROM Conversation c JOIN FETCH c.peer WHERE c.user.id = :userId " +
+           "AND (c.lastMessageAt < :lastMessageAt OR (c.lastMessageAt = :lastMessageAt AND c.id < :id)) " +
+           "ORDER BY c.lastMessageAt DESC, c.id DESC")
+    Slice<Conversation> findInboxSliceAfter(Long userId, LocalDateTime lastMessageAt, Long id, Pageable pageable);
+
+    @Query("SELECT c.unreadCount FROM Conversation c WHERE c.user.id = :userId AND c.peer.id = :peerId")
+    Optional<Integer> findUnreadCount(Long userId, Long peerId);
+
+    @Query("SELECT COALESCE(SUM(c.unreadCount), 0) FROM Conversation c WHERE c.user.id = :userId")
+    long sumUnreadCount(Long userId);
+
+    @Query("SELECT c.peer FROM Conversation c WHERE c.user.id = :userId ORDER BY c.lastMessageAt DESC, c.id DESC")
+    List<User> findPeers(Long userId);
+
+    // The last message only moves forward, so concurrent sends cannot leave an older one behind
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+           "c.unreadCount = c.unreadCount + :unreadDelta, " +
+           "c.lastMessageId = CASE WHEN c.lastMessageAt IS NULL OR c.lastMessageAt <= :sentAt THEN :messageId ELSE c.lastMessageId END, " +
+           "c.lastMessagePreview = CASE WHEN c.lastMessageAt IS NULL OR c.lastMessageAt <= :sentAt THEN :preview ELSE c.lastMessagePreview END, " +
+           "c.lastMessageAt = CASE WHEN c.lastMessageAt IS NULL OR c.lastMessageAt <= :sentAt THEN :sentAt ELSE c.lastMessageAt END " +
+           "WHERE c.user.id = :userId AND c.peer.id = :peerId")
+    int recordMessage(Long userId, Long peerId, Long messageId, String preview, LocalDateTime sentAt, int unreadDelta);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET c.unreadCount = CASE WHEN c.unreadCount > :count THEN c.unreadCount - :count ELSE 0 END " +
+           "WHERE c.user.id = :userId AND c.peer.id = :peerId")
+    int decrementUnreadCount(Long userId, Long peerId, int count);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET c.lastMessageId = :messageId, c.lastMessagePreview = :preview, c.lastMessageAt = :sentAt " +
+           "WHERE c.user.id = :userId AND c.peer.id = :peerId AND c.lastMessageId = :replacedMessageId")
+    int replaceLastMessage(Long userId, Long peerId, Long replacedMessageId, Long messageId, String preview, LocalDateTime sentAt);
+}
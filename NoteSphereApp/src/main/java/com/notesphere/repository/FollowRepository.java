@@ -4,6 +4,8 @@ import com.notesphere.model.Follow;
 import com.notesphere.model.User;
 import com.notesphere.model.NoteRepository;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -14,5 +16,11 @@ public interface FollowRepository extends JpaRepository<Follow, Long> {
     List<Follow> findByFollowed(NoteRepository followed);
     Optional<Follow> findByFollowerAndFollowed(User follower, NoteRepository followed);
     boolean existsByFollowerAndFollowed(User follower, NoteRepository followed);
-    void deleteByFollowerAndFollowed(User follower, NoteRepository followed);
-} 
\ No newline at end of file
+
+    @Query("SELECT f.followed.id FROM Follow f WHERE f.follower.id = :followerId AND f.followed.followersCount > :followersCount")
+    List<Long> findFollowedRepositoryIdsWithFollowersAbove(Long followerId, long followersCount);
+
+    @Modifying
+    @Query("DELETE FROM Follow f WHERE f.follower.id = :followerId AND f.followed.id = :followedId")
+    int deleteFollow(Long followerId, Long followedId);
+}
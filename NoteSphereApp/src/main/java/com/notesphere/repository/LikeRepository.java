@@ -4,6 +4,8 @@ import com.notesphere.model.Like;
 import com.notesphere.model.LikeableType;
 import com.notesphere.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -14,5 +16,9 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
     List<Like> findByLikeableIdAndLikeableType(Long likeableId, LikeableType likeableType);
     Optional<Like> findByUserAndLikeableIdAndLikeableType(User user, Long likeableId, LikeableType likeableType);
     boolean existsByUserAndLikeableIdAndLikeableType(User user, Long likeableId, LikeableType likeableType);
-    void deleteByUserAndLikeableIdAndLikeableType(User user, Long likeableId, LikeableType likeableType);
-} 
\ No newline at end of file
+
+    // Single DELETE statement; the derived deleteBy variant loads the rows first
+    @Modifying
+    @Query("DELETE FROM Like l WHERE l.user.id = :userId AND l.likeableId = :likeableId AND l.likeableType = :likeableType")
+    int deleteLike(Long userId, Long likeableId, LikeableType likeableType);
+}
@@ -3,28 +3,42 @@ package com.notesphere.repository;
 import com.notesphere.model.Message;
 import com.notesphere.model.MessageStatus;
 import com.notesphere.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
     List<Message> findBySenderAndDeletedAtIsNull(User sender);
     List<Message> findByReceiverAndDeletedAtIsNull(User receiver);
-    
+
+    // Both branches of the OR are served by IX_messages_sender_receiver_created
+    @Query("SELECT m FROM Message m WHERE " +
+           "((m.sender.id = :userId AND m.receiver.id = :peerId) OR " +
+           "(m.sender.id = :peerId AND m.receiver.id = :userId)) AND " +
+           "m.deletedAt IS NULL " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Message> findHistoryFirstSlice(Long userId, Long peerId, Pageable pageable);
+
     @Query("SELECT m FROM Message m WHERE " +
-           "((m.sender = :user1 AND m.receiver = :user2) OR " +
-           "(m.sender = :user2 AND m.receiver = :user1)) AND " +
+           "((m.sender.id = :userId AND m.receiver.id = :peerId) OR " +
+           "(m.sender.id = :peerId AND m.receiver.id = :userId)) AND " +
            "m.deletedAt IS NULL " +
-           "ORDER BY m.createdAt DESC")
-    List<Message> findConversation(User user1, User user2);
+           "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Message> findHistorySliceAfter(Long userId, Long peerId, LocalDateTime createdAt, Long id, Pageable pageable);
     
     List<Message> findByReceiverAndStatus(User receiver, MessageStatus status);
-    
-    @Query("SELECT DISTINCT m.sender FROM Message m WHERE m.receiver = :user AND m.deletedAt IS NULL")
-    List<User> findDistinctSenders(User user);
-    
-    @Query("SELECT DISTINCT m.receiver FROM Message m WHERE m.sender = :user AND m.deletedAt IS NULL")
-    List<User> findDistinctReceivers(User user);
-} 
\ No newline at end of file
+
+    @Modifying
+    @Query("UPDATE Message m SET m.status = :status WHERE m.sender.id = :senderId AND m.receiver.id = :receiverId " +
+           "AND m.createdAt <= :upTo AND m.deletedAt IS NULL AND m.status IN :currentStatuses")
+    int updateStatusUpTo(Long senderId, Long receiverId, LocalDateTime upTo,
+                         Collection<MessageStatus> currentStatuses, MessageStatus status);
+}
@@ -1,18 +1,36 @@
 package com.notesphere.repository;
 
+import com.notesphere.dto.note.NoteRepositoryLink;
+import com.notesphere.dto.note.NoteResponse;
+import com.notesphere.dto.note.NoteVersion;
 import com.notesphere.model.Note;
 import com.notesphere.model.User;
 import com.notesphere.model.Visibility;
+import com.notesphere.security.AccessRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import com.notesphere.model.Category;
 
 @Repository
 public interface NoteRepository extends JpaRepository<Note, Long> {
+    String NOTE_RESPONSE_SELECT = "SELECT new com.notesphere.dto.note.NoteResponse(n.id, n.title, n.content, c.username, n.visibility, " +
+           "n.likesCount, n.commentsCount, " +
+           "CASE WHEN EXISTS (SELECT ml.id FROM Like ml WHERE ml.likeableId = n.id " +
+           "AND ml.likeableType = com.notesphere.model.LikeableType.NOTE AND ml.user.username = :currentUsername) " +
+           "THEN true ELSE false END, " +
+           "n.createdAt, n.updatedAt) " +
+           "FROM Note n JOIN n.creator c ";
+
     List<Note> findByCreator(User creator);
     Page<Note> findByCreator(User creator, Pageable pageable);
     List<Note> findByCreatorAndVisibility(User creator, Visibility visibility);
@@ -20,12 +38,6 @@ public interface NoteRepository extends JpaRepository<Note, Long> {
     @Query("SELECT n FROM Note n WHERE n.visibility = 'PUBLIC' OR n.creator = :user")
     List<Note> findAccessibleNotes(User user);
     
-    @Query("SELECT n FROM Note n WHERE " +
-           "(n.visibility = 'PUBLIC' OR n.creator = :user) AND " +
-           "(LOWER(n.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(n.content) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    List<Note> searchNotes(String searchTerm, User user);
-    
     @Query("SELECT n FROM Note n JOIN SharedNote sn ON n.id = sn.note.id " +
            "WHERE sn.sharedWithUser = :user")
     List<Note> findSharedWithUser(User user);
@@ -34,4 +46,113 @@ public interface NoteRepository extends JpaRepository<Note, Long> {
 
 
     Page<Note> findByVisibility(Visibility visibility, Pageable pageable);
+
+    @Query(value = NOTE_RESPONSE_SELECT + "WHERE n.visibility = :visibility",
+           countQuery = "SELECT COUNT(n) FROM Note n WHERE n.visibility = :visibility")
+    Page<NoteResponse> findFeedByVisibility(Visibility visibility, String currentUsername, Pageable pageable);
+
+    @Query(NOTE_RESPONSE_SELECT + "WHERE n.visibility = :visibility ORDER BY n.createdAt DESC, n.id DESC")
+    Slice<NoteResponse> findFeedFirstSlice(Visibility visibility, String currentUsername, Pageable pageable);
+
+    @Query(NOTE_RESPONSE_SELECT + "WHERE n.visibility = :visibility " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    Slice<NoteResponse> findFeedSliceAfter(Visibility visibility, LocalDateTime createdAt, Long id,
+                                           String currentUsername, Pageable pageable);
+
+    @Query(NOTE_RESPONSE_SELECT + "WHERE c.username = :creatorUsername ORDER BY n.createdAt DESC, n.id DESC")
+    Slice<NoteResponse> findCreatorFirstSlice(String creatorUsername, String currentUsername, Pageable pageable);
+
+    @Query(NOTE_RESPONSE_SELECT + "WHERE c.username = :creatorUsername " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    Slice<NoteResponse> findCreatorSliceAfter(String creatorUsername, LocalDateTime createdAt, Long id,
+                                              String currentUsername, Pageable pageable);
+
+    // Note listing: public notes plus the viewer's own, optionally within one category
+    @Query(NOTE_RESPONSE_SELECT + "WHERE (n.visibility = :visibility OR c.username = :currentUsername) " +
+           "AND (:categoryId IS NULL OR n.category.id = :categoryId) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    Slice<NoteResponse> findListingFirstSlice(Long categoryId, Visibility visibility, String currentUsername,
+                                              Pageable pageable);
+
+    @Query(NOTE_RESPONSE_SELECT + "WHERE (n.visibility = :visibility OR c.username = :currentUsername) " +
+           "AND (:categoryId IS NULL OR n.category.id = :categoryId) " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    Slice<NoteResponse> findListingSliceAfter(Long categoryId, Visibility visibility, LocalDateTime createdAt, Long id,
+                                              String currentUsername, Pageable pageable);
+
+    // Pull side of the home timeline, for followed repositories too large to fan out
+    @Query(NOTE_RESPONSE_SELECT + "WHERE EXISTS (SELECT r.id FROM NoteRepository r " +
+           "WHERE r.id IN :repositoryIds AND r MEMBER OF n.repositories) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    Slice<NoteResponse> findInRepositoriesFirstSlice(Collection<Long> repositoryIds, String currentUsername, Pageable pageable);
+
+    @Query(NOTE_RESPONSE_SELECT + "WHERE EXISTS (SELECT r.id FROM NoteRepository r " +
+           "WHERE r.id IN :repositoryIds AND r MEMBER OF n.repositories) " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    Slice<NoteResponse> findInRepositoriesSliceAfter(Collection<Long> repositoryIds, LocalDateTime createdAt, Long id,
+                                                     String currentUsername, Pageable pageable);
+
+    // Owner, visibility and the strongest direct or repository share in one statement
+    @Query("SELECT n.id AS targetId, n.creator.id AS creatorId, n.visibility AS visibility, " +
+           "CASE WHEN EXISTS (SELECT sn.id FROM SharedNote sn WHERE sn.note.id = n.id AND sn.sharedWithUser.id = :userId " +
+           "AND sn.permissionType = com.notesphere.model.PermissionType.WRITE) " +
+           "OR EXISTS (SELECT sr.id FROM SharedRepository sr WHERE sr.repository MEMBER OF n.repositories " +
+           "AND sr.sharedWithUser.id = :userId AND sr.permissionType = com.notesphere.model.PermissionType.WRITE) THEN 2 " +
+           "WHEN EXISTS (SELECT sn.id FROM SharedNote sn WHERE sn.note.id = n.id AND sn.sharedWithUser.id = :userId) " +
+           "OR EXISTS (SELECT sr.id FROM SharedRepository sr WHERE sr.repository MEMBER OF n.repositories " +
+           "AND sr.sharedWithUser.id = :userId) THEN 1 ELSE 0 END AS shareLevel " +
+           "FROM Note n WHERE n.id IN :noteIds")
+    List<AccessRow> findAccessRows(Collection<Long> noteIds, Long userId);
+
+    @Query("SELECT n.id AS id, n.updatedAt AS updatedAt, n.likesCount AS likesCount, " +
+           "n.commentsCount AS commentsCount, " +
+           "CASE WHEN EXISTS (SELECT ml.id FROM Like ml WHERE ml.likeableId = n.id " +
+           "AND ml.likeableType = com.notesphere.model.LikeableType.NOTE AND ml.user.username = :currentUsername) " +
+           "THEN true ELSE false END AS liked " +
+           "FROM Note n WHERE n.id = :noteId")
+    Optional<NoteVersion> findVersion(Long noteId, String currentUsername);
+
+    @Query(NOTE_RESPONSE_SELECT + "WHERE n.id IN :noteIds")
+    List<NoteResponse> findResponsesByIdIn(Collection<Long> noteIds, String currentUsername);
+
+    @Query("SELECT n.id AS noteId, r.id AS repositoryId, r.name AS repositoryName " +
+           "FROM Note n JOIN n.repositories r WHERE n.id IN :noteIds")
+    List<NoteRepositoryLink> findRepositoryLinks(Collection<Long> noteIds);
+
+    @Query("SELECT n.likesCount FROM Note n WHERE n.id = :noteId")
+    Optional<Long> findLikesCountById(Long noteId);
+
+    @Modifying
+    @Query("UPDATE Note n SET n.likesCount = n.likesCount + :delta WHERE n.id = :noteId")
+    int adjustLikesCount(Long noteId, long delta);
+
+    @Modifying
+    @Query("UPDATE Note n SET n.commentsCount = n.commentsCount + :delta WHERE n.id = :noteId")
+    int adjustCommentsCount(Long noteId, long delta);
+
+    @Query("SELECT MIN(n.id) FROM Note n")
+    Long findMinId();
+
+    @Query("SELECT MAX(n.id) FROM Note n")
+    Long findMaxId();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Note n SET n.likesCount = " +
+           "(SELECT COUNT(l) FROM Like l WHERE l.likeableId = n.id AND l.likeableType = com.notesphere.model.LikeableType.NOTE) " +
+           "WHERE n.id BETWEEN :fromId AND :toId AND n.likesCount <> " +
+           "(SELECT COUNT(l2) FROM Like l2 WHERE l2.likeableId = n.id AND l2.likeableType = com.notesphere.model.LikeableType.NOTE)")
+    int reconcileLikesCount(Long fromId, Long toId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Note n SET n.commentsCount = " +
+           "(SELECT COUNT(c) FROM Comment c WHERE c.note.id = n.id AND c.commentableType = com.notesphere.model.CommentableType.NOTE) " +
+           "WHERE n.id BETWEEN :fromId AND :toId AND n.commentsCount <> " +
+           "(SELECT COUNT(c2) FROM Comment c2 WHERE c2.note.id = n.id AND c2.commentableType = com.notesphere.model.CommentableType.NOTE)")
+    int reconcileCommentsCount(Long fromId, Long toId);
 } 
\ No newline at end of file
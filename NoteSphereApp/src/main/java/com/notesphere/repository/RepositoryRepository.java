@@ -1,32 +1,102 @@
 package com.notesphere.repository;
 
+import com.notesphere.dto.repository.RepositoryVersion;
 import com.notesphere.model.NoteRepository;
 import com.notesphere.model.User;
 import com.notesphere.model.Visibility;
+import com.notesphere.security.AccessRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface RepositoryRepository extends JpaRepository<NoteRepository, Long> {
+public interface RepositoryRepository extends JpaRepository<NoteRepository, Long>, RepositoryRepositoryCustom {
     List<NoteRepository> findByCreator(User creator);
     Page<NoteRepository> findByCreator(User creator, Pageable pageable);
     List<NoteRepository> findByVisibility(Visibility visibility);
     Page<NoteRepository> findByVisibility(Visibility visibility, Pageable pageable);
+
+    // Same page as findByVisibility, reading only the columns a response depends on
+    Page<RepositoryVersion> findVersionsByVisibility(Visibility visibility, Pageable pageable);
     
     @Query("SELECT r FROM NoteRepository r WHERE r.visibility = 'PUBLIC' OR r.creator = :user")
     List<NoteRepository> findAccessibleRepositories(User user);
     
-    @Query("SELECT r FROM NoteRepository r WHERE " +
-           "(r.visibility = 'PUBLIC' OR r.creator = :user) AND " +
-           "(LOWER(r.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(r.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    List<NoteRepository> searchRepositories(String searchTerm, User user);
-    
     @Query("SELECT r FROM NoteRepository r JOIN SharedRepository sr ON r.id = sr.repository.id " +
            "WHERE sr.sharedWithUser = :user")
     List<NoteRepository> findSharedWithUser(User user);
+
+    @Query("SELECT r FROM NoteRepository r JOIN FETCH r.creator WHERE r.visibility = :visibility " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    Slice<NoteRepository> findFeedFirstSlice(Visibility visibility, Pageable pageable);
+
+    @Query("SELECT r FROM NoteRepository r JOIN FETCH r.creator WHERE r.visibility = :visibility " +
+           "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    Slice<NoteRepository> findFeedSliceAfter(Visibility visibility, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    @Query("SELECT r FROM NoteRepository r JOIN FETCH r.creator c WHERE c.username = :creatorUsername " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    Slice<NoteRepository> findCreatorFirstSlice(String creatorUsername, Pageable pageable);
+
+    @Query("SELECT r FROM NoteRepository r JOIN FETCH r.creator c WHERE c.username = :creatorUsername " +
+           "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    Slice<NoteRepository> findCreatorSliceAfter(String creatorUsername, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    @Query("SELECT r FROM NoteRepository r JOIN FETCH r.creator WHERE r.id IN :repositoryIds")
+    List<NoteRepository> findAllWithCreatorByIdIn(Collection<Long> repositoryIds);
+
+    @Query("SELECT r.id AS targetId, r.creator.id AS creatorId, r.visibility AS visibility, " +
+           "CASE WHEN EXISTS (SELECT sr.id FROM SharedRepository sr WHERE sr.repository.id = r.id " +
+           "AND sr.sharedWithUser.id = :userId AND sr.permissionType = com.notesphere.model.PermissionType.WRITE) THEN 2 " +
+           "WHEN EXISTS (SELECT sr.id FROM SharedRepository sr WHERE sr.repository.id = r.id " +
+           "AND sr.sharedWithUser.id = :userId) THEN 1 ELSE 0 END AS shareLevel " +
+           "FROM NoteRepository r WHERE r.id IN :repositoryIds")
+    List<AccessRow> findAccessRows(Collection<Long> repositoryIds, Long userId);
+
+    @Query("SELECT r.likesCount FROM NoteRepository r WHERE r.id = :repositoryId")
+    Optional<Long> findLikesCountById(Long repositoryId);
+
+    @Query("SELECT r.followersCount FROM NoteRepository r WHERE r.id = :repositoryId")
+    Optional<Long> findFollowersCountById(Long repositoryId);
+
+    @Query("SELECT MIN(r.id) FROM NoteRepository r")
+    Long findMinId();
+
+    @Query("SELECT MAX(r.id) FROM NoteRepository r")
+    Long findMaxId();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE NoteRepository r SET r.likesCount = " +
+           "(SELECT COUNT(l) FROM Like l WHERE l.likeableId = r.id AND l.likeableType = com.notesphere.model.LikeableType.REPOSITORY) " +
+           "WHERE r.id BETWEEN :fromId AND :toId AND r.likesCount <> " +
+           "(SELECT COUNT(l2) FROM Like l2 WHERE l2.likeableId = r.id AND l2.likeableType = com.notesphere.model.LikeableType.REPOSITORY)")
+    int reconcileLikesCount(Long fromId, Long toId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE NoteRepository r SET r.followersCount = " +
+           "(SELECT COUNT(f) FROM Follow f WHERE f.followed.id = r.id) " +
+           "WHERE r.id BETWEEN :fromId AND :toId AND r.followersCount <> " +
+           "(SELECT COUNT(f2) FROM Follow f2 WHERE f2.followed.id = r.id)")
+    int reconcileFollowersCount(Long fromId, Long toId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE NoteRepository r SET r.notesCount = " +
+           "(SELECT COUNT(n) FROM Note n JOIN n.repositories nr WHERE nr.id = r.id) " +
+           "WHERE r.id BETWEEN :fromId AND :toId AND r.notesCount <> " +
+           "(SELECT COUNT(n2) FROM Note n2 JOIN n2.repositories nr2 WHERE nr2.id = r.id)")
+    int reconcileNotesCount(Long fromId, Long toId);
 } 
\ No newline at end of file
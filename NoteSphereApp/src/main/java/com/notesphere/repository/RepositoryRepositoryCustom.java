@@ -0,0 +1,9 @@
+package com.notesphere.repository;
+
+public interface RepositoryRepositoryCustom {
+    int adjustLikesCount(Long repositoryId, long delta);
+
+    int adjustFollowersCount(Long repositoryId, long delta);
+
+    int adjustNotesCount(Long repositoryId, long delta);
+}
@@ -0,0 +1,64 @@
+package com.notesphere.repository;
+
+import com.notesphere.model.NoteRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class RepositoryRepositoryImpl implements RepositoryRepositoryCustom {
+    // Not mapped to any entity, so Hibernate invalidates no cache region for these updates
+    private static final String COUNTERS_QUERY_SPACE = "note_repository_counters";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int adjustLikesCount(Long repositoryId, long delta) {
+        return adjust("likesCount", repositoryId, delta);
+    }
+
+    @Override
+    @Transactional
+    public int adjustFollowersCount(Long repositoryId, long delta) {
+        return adjust("followersCount", repositoryId, delta);
+    }
+
+    @Override
+    @Transactional
+    public int adjustNotesCount(Long repositoryId, long delta) {
+        return adjust("notesCount", repositoryId, delta);
+    }
+
+    /**
+     * A JPQL bulk UPDATE would empty the whole "repositories" cache region on every like,
+     * follow or added note. The counter is updated natively instead and only the affected
+     * repository is evicted, again after commit so a concurrent read cannot re-cache the old value.
+     */
+    private int adjust(String column, Long repositoryId, long delta) {
+        int updated = entityManager
+                .createNativeQuery("UPDATE dbo.note_repositories SET " + column + " = " + column + " + :delta WHERE id = :id")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(COUNTERS_QUERY_SPACE)
+                .setParameter("delta", delta)
+                .setParameter("id", repositoryId)
+                .executeUpdate();
+        evict(repositoryId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(repositoryId);
+                }
+            });
+        }
+        return updated;
+    }
+
+    private void evict(Long repositoryId) {
+        entityManager.getEntityManagerFactory().getCache().evict(NoteRepository.class, repositoryId);
+    }
+}
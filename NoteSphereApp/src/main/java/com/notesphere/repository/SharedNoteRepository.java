@@ -4,8 +4,11 @@ import com.notesphere.model.Note;
 import com.notesphere.model.SharedNote;
 import com.notesphere.model.User;
 import com.notesphere.model.PermissionType;
+import com.notesphere.search.ShareLink;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +20,7 @@ public interface SharedNoteRepository extends JpaRepository<SharedNote, Long> {
     Optional<SharedNote> findByNoteAndSharedWithUser(Note note, User sharedWithUser);
     boolean existsByNoteAndSharedWithUser(Note note, User sharedWithUser);
     void deleteByNoteAndSharedWithUser(Note note, User sharedWithUser);
+
+    @Query("SELECT sn.note.id AS targetId, sn.sharedWithUser.id AS userId FROM SharedNote sn WHERE sn.note.id IN :noteIds")
+    List<ShareLink> findShareLinksByNoteIds(Collection<Long> noteIds);
 } 
\ No newline at end of file
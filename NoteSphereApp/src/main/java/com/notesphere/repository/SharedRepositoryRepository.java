@@ -4,8 +4,11 @@ import com.notesphere.model.NoteRepository;
 import com.notesphere.model.SharedRepository;
 import com.notesphere.model.User;
 import com.notesphere.model.PermissionType;
+import com.notesphere.search.ShareLink;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +20,8 @@ public interface SharedRepositoryRepository extends JpaRepository<SharedReposito
     Optional<SharedRepository> findByRepositoryAndSharedWithUser(NoteRepository repository, User sharedWithUser);
     boolean existsByRepositoryAndSharedWithUser(NoteRepository repository, User sharedWithUser);
     void deleteByRepositoryAndSharedWithUser(NoteRepository repository, User sharedWithUser);
+
+    @Query("SELECT sr.repository.id AS targetId, sr.sharedWithUser.id AS userId FROM SharedRepository sr " +
+           "WHERE sr.repository.id IN :repositoryIds")
+    List<ShareLink> findShareLinksByRepositoryIds(Collection<Long> repositoryIds);
 } 
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.notesphere.repository;
+
+import com.notesphere.model.TimelineEntry;
+import com.notesphere.model.TimelineEntryId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, TimelineEntryId> {
+
+    // One statement per batch of notes, however many followers the repository has
+    @Modifying
+    @Query(value = "INSERT INTO dbo.timeline_entries (user_id, note_id, repository_id, createdAt) " +
+                   "SELECT f.follower_id, n.id, :repositoryId, n.createdAt " +
+                   "FROM dbo.follows f JOIN dbo.notes n ON n.id IN (:noteIds) " +
+                   "WHERE f.followed_id = :repositoryId AND NOT EXISTS (" +
+                   "SELECT 1 FROM dbo.timeline_entries t WHERE t.user_id = f.follower_id AND t.note_id = n.id)",
+           nativeQuery = true)
+    int fanOut(Collection<Long> noteIds, Long repositoryId);
+
+    @Query("SELECT t FROM TimelineEntry t WHERE t.id.userId = :userId " +
+           "ORDER BY t.createdAt DESC, t.id.noteId DESC")
+    Slice<TimelineEntry> findFirstSlice(Long userId, Pageable pageable);
+
+    @Query("SELECT t FROM TimelineEntry t WHERE t.id.userId = :userId " +
+           "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id.noteId < :noteId)) " +
+           "ORDER BY t.createdAt DESC, t.id.noteId DESC")
+    Slice<TimelineEntry> findSliceAfter(Long userId, LocalDateTime createdAt, Long noteId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.id.userId = :userId AND t.repositoryId = :repositoryId")
+    int deleteByUserAndRepository(Long userId, Long repositoryId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.id.noteId = :noteId AND t.repositoryId = :repositoryId")
+    int deleteByNoteAndRepository(Long noteId, Long repositoryId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.createdAt < :cutoff")
+    int deleteOlderThan(LocalDateTime cutoff);
+}
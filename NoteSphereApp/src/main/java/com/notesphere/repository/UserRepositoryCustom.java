@@ -0,0 +1,8 @@
+package com.notesphere.repository;
+
+import com.notesphere.model.User;
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,7 @@
+package com.notesphere.search;
+
+public enum SearchDocumentType {
+    NOTE,
+    REPOSITORY,
+    USER
+}
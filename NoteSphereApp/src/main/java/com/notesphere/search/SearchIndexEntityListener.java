@@ -0,0 +1,85 @@
+package com.notesphere.search;
+
+import com.notesphere.model.Note;
+import com.notesphere.model.NoteRepository;
+import com.notesphere.model.SharedNote;
+import com.notesphere.model.SharedRepository;
+import com.notesphere.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects the ids of changed searchable entities and hands them to the {@link SearchIndexer}
+ * once the transaction has committed, one batch per document type.
+ */
+public class SearchIndexEntityListener {
+    private final ObjectProvider<SearchIndexer> searchIndexer;
+
+    public SearchIndexEntityListener(ObjectProvider<SearchIndexer> searchIndexer) {
+        this.searchIndexer = searchIndexer;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof Note note) {
+            publish(SearchDocumentType.NOTE, note.getId());
+        } else if (entity instanceof NoteRepository repository) {
+            publish(SearchDocumentType.REPOSITORY, repository.getId());
+        } else if (entity instanceof User user) {
+            publish(SearchDocumentType.USER, user.getId());
+        } else if (entity instanceof SharedNote sharedNote && sharedNote.getNote() != null) {
+            // Share changes alter who can see the note, so the note document is rewritten
+            publish(SearchDocumentType.NOTE, sharedNote.getNote().getId());
+        } else if (entity instanceof SharedRepository sharedRepository && sharedRepository.getRepository() != null) {
+            publish(SearchDocumentType.REPOSITORY, sharedRepository.getRepository().getId());
+        }
+    }
+
+    private void publish(SearchDocumentType type, Long id) {
+        if (id == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            searchIndexer.getObject().apply(new SearchIndexEvent(type, id));
+            return;
+        }
+
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(PendingChanges.class);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(PendingChanges.class, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(type, id);
+    }
+
+    private final class PendingChanges implements TransactionSynchronization {
+        private final Map<SearchDocumentType, Set<Long>> ids = new EnumMap<>(SearchDocumentType.class);
+
+        void add(SearchDocumentType type, Long id) {
+            ids.computeIfAbsent(type, t -> new LinkedHashSet<>()).add(id);
+        }
+
+        @Override
+        public void afterCommit() {
+            SearchIndexer indexer = searchIndexer.getObject();
+            ids.forEach((type, typeIds) -> indexer.apply(new SearchIndexEvent(type, typeIds)));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(PendingChanges.class);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.notesphere.search;
+
+import java.util.Collection;
+import java.util.List;
+
+public class SearchIndexEvent {
+    private final SearchDocumentType type;
+    private final List<Long> ids;
+
+    public SearchIndexEvent(SearchDocumentType type, Collection<Long> ids) {
+        this.type = type;
+        this.ids = List.copyOf(ids);
+    }
+
+    public SearchIndexEvent(SearchDocumentType type, Long id) {
+        this(type, List.of(id));
+    }
+
+    public SearchDocumentType getType() {
+        return type;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+}
@@ -0,0 +1,265 @@
+package com.notesphere.search;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Embedded Lucene index for notes, repositories and users, stored in a local directory.
+ * Writes become searchable on the next refresh and are committed to disk periodically.
+ */
+@Component
+public class SearchIndexService {
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexService.class);
+
+    public static final String FIELD_TITLE = "title";
+    public static final String FIELD_CONTENT = "content";
+    public static final String FIELD_NAME = "name";
+    public static final String FIELD_DESCRIPTION = "description";
+    public static final String FIELD_USERNAME = "username";
+    public static final String FIELD_FIRST_NAME = "firstName";
+    public static final String FIELD_LAST_NAME = "lastName";
+    public static final String FIELD_NICKNAME = "nickname";
+    public static final String FIELD_VISIBILITY = "visibility";
+    public static final String FIELD_OWNER = "owner";
+    public static final String FIELD_SHARED_WITH = "sharedWith";
+
+    private static final Map<String, Float> NOTE_FIELDS = Map.of(FIELD_TITLE, 3f, FIELD_CONTENT, 1f);
+    private static final Map<String, Float> REPOSITORY_FIELDS = Map.of(FIELD_NAME, 3f, FIELD_DESCRIPTION, 1f);
+    private static final Map<String, Float> USER_FIELDS = Map.of(
+            FIELD_USERNAME, 3f, FIELD_NICKNAME, 2f, FIELD_FIRST_NAME, 1.5f, FIELD_LAST_NAME, 1.5f);
+
+    private static final String FIELD_UID = "uid";
+    private static final String FIELD_TYPE = "type";
+    private static final String FIELD_ID = "id";
+    private static final float PREFIX_BOOST_FACTOR = 0.5f;
+
+    private final Path indexDir;
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    public SearchIndexService(@Value("${notesphere.search.index-dir:./data/search-index}") String indexDir) {
+        this.indexDir = Paths.get(indexDir);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(indexDir);
+        directory = FSDirectory.open(indexDir);
+
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+        log.info("Search index opened at {} with {} documents", indexDir.toAbsolutePath(), documentCount());
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    public void upsert(SearchDocumentType type, Long id, Document document) {
+        document.add(new StringField(FIELD_UID, uid(type, id), Field.Store.NO));
+        document.add(new StringField(FIELD_TYPE, type.name(), Field.Store.NO));
+        document.add(new StringField(FIELD_ID, id.toString(), Field.Store.YES));
+        try {
+            writer.updateDocument(new Term(FIELD_UID, uid(type, id)), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void delete(SearchDocumentType type, Long id) {
+        try {
+            writer.deleteDocuments(new Term(FIELD_UID, uid(type, id)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notesphere.search.commit-interval-ms:30000}")
+    public void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            log.error("Could not commit search index", e);
+        }
+    }
+
+    public int documentCount() {
+        return writer.getDocStats().numDocs;
+    }
+
+    public Page<Long> searchNotes(String text, Long viewerId, Pageable pageable) {
+        return search(SearchDocumentType.NOTE, text, NOTE_FIELDS, viewerId, true, pageable);
+    }
+
+    public Page<Long> searchRepositories(String text, Long viewerId, Pageable pageable) {
+        return search(SearchDocumentType.REPOSITORY, text, REPOSITORY_FIELDS, viewerId, true, pageable);
+    }
+
+    public Page<Long> searchUsers(String text, Pageable pageable) {
+        return search(SearchDocumentType.USER, text, USER_FIELDS, null, false, pageable);
+    }
+
+    /**
+     * Ranked search over the given fields (field name to boost). Every query token must match;
+     * the last one also matches as a prefix so partially typed words still find results.
+     * When {@code visibilityAware} is set only PUBLIC documents, documents owned by the viewer
+     * and documents shared with the viewer are returned.
+     */
+    private Page<Long> search(SearchDocumentType type, String text, Map<String, Float> fields,
+                             Long viewerId, boolean visibilityAware, Pageable pageable) {
+        List<String> tokens = analyze(text);
+        if (tokens.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        query.add(new TermQuery(new Term(FIELD_TYPE, type.name())), Occur.FILTER);
+
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            boolean lastToken = i == tokens.size() - 1;
+
+            BooleanQuery.Builder tokenQuery = new BooleanQuery.Builder();
+            fields.forEach((field, boost) -> {
+                tokenQuery.add(new BoostQuery(new TermQuery(new Term(field, token)), boost), Occur.SHOULD);
+                if (lastToken) {
+                    tokenQuery.add(new BoostQuery(new PrefixQuery(new Term(field, token)), boost * PREFIX_BOOST_FACTOR),
+                            Occur.SHOULD);
+                }
+            });
+            query.add(tokenQuery.build(), Occur.MUST);
+        }
+
+        if (visibilityAware) {
+            BooleanQuery.Builder access = new BooleanQuery.Builder();
+            access.add(new TermQuery(new Term(FIELD_VISIBILITY, "PUBLIC")), Occur.SHOULD);
+            if (viewerId != null) {
+                access.add(new TermQuery(new Term(FIELD_OWNER, viewerId.toString())), Occur.SHOULD);
+                access.add(new TermQuery(new Term(FIELD_SHARED_WITH, viewerId.toString())), Occur.SHOULD);
+            }
+            query.add(access.build(), Occur.FILTER);
+        }
+
+        return execute(query.build(), pageable);
+    }
+
+    private Page<Long> execute(Query query, Pageable pageable) {
+        int offset = (int) pageable.getOffset();
+        int limit = offset + pageable.getPageSize();
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, Math.max(limit, 1));
+                long total = topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                        ? topDocs.totalHits.value
+                        : searcher.count(query);
+
+                StoredFields storedFields = searcher.storedFields();
+                List<Long> ids = new ArrayList<>();
+                for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                    ids.add(Long.valueOf(storedFields.document(topDocs.scoreDocs[i].doc).get(FIELD_ID)));
+                }
+                return new PageImpl<>(ids, pageable, total);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void addText(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    public static void addKeyword(Document document, String field, Object value) {
+        if (value != null) {
+            document.add(new StringField(field, value.toString(), Field.Store.NO));
+        }
+    }
+
+    private List<String> analyze(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        try (TokenStream stream = analyzer.tokenStream("", text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tokens;
+    }
+
+    private static String uid(SearchDocumentType type, Long id) {
+        return type.name() + ":" + id;
+    }
+}
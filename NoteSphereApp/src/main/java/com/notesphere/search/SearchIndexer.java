@@ -0,0 +1,202 @@
+package com.notesphere.search;
+
+import com.notesphere.model.Note;
+import com.notesphere.model.NoteRepository;
+import com.notesphere.model.User;
+import com.notesphere.repository.RepositoryRepository;
+import com.notesphere.repository.SharedNoteRepository;
+import com.notesphere.repository.SharedRepositoryRepository;
+import com.notesphere.repository.UserRepository;
+import org.apache.lucene.document.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the search index in sync with the database. Entity changes arrive as
+ * {@link SearchIndexEvent}s, batched per transaction, once that transaction has committed.
+ */
+@Component
+public class SearchIndexer {
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexer.class);
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final SearchIndexService searchIndexService;
+    private final com.notesphere.repository.NoteRepository noteRepository;
+    private final RepositoryRepository repositoryRepository;
+    private final UserRepository userRepository;
+    private final SharedNoteRepository sharedNoteRepository;
+    private final SharedRepositoryRepository sharedRepositoryRepository;
+
+    @Value("${notesphere.search.rebuild-on-empty:true}")
+    private boolean rebuildOnEmpty;
+
+    public SearchIndexer(SearchIndexService searchIndexService,
+                         com.notesphere.repository.NoteRepository noteRepository,
+                         RepositoryRepository repositoryRepository,
+                         UserRepository userRepository,
+                         SharedNoteRepository sharedNoteRepository,
+                         SharedRepositoryRepository sharedRepositoryRepository) {
+        this.searchIndexService = searchIndexService;
+        this.noteRepository = noteRepository;
+        this.repositoryRepository = repositoryRepository;
+        this.userRepository = userRepository;
+        this.sharedNoteRepository = sharedNoteRepository;
+        this.sharedRepositoryRepository = sharedRepositoryRepository;
+    }
+
+    public void apply(SearchIndexEvent event) {
+        try {
+            switch (event.getType()) {
+                case NOTE -> indexNotes(event.getIds(), noteRepository.findAllById(event.getIds()));
+                case REPOSITORY -> indexRepositories(event.getIds(), repositoryRepository.findAllById(event.getIds()));
+                case USER -> indexUsers(event.getIds(), userRepository.findAllById(event.getIds()));
+            }
+            searchIndexService.refresh();
+        } catch (RuntimeException e) {
+            // The index is rebuilt from the database, so a failed update must never fail the write itself
+            log.error("Could not update search index for {} {}", event.getType(), event.getIds(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (rebuildOnEmpty && searchIndexService.documentCount() == 0) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+
+        Page<Note> notes;
+        Pageable pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+        do {
+            notes = noteRepository.findAll(pageable);
+            indexNotes(ids(notes.getContent(), Note::getId), notes.getContent());
+            pageable = notes.nextPageable();
+        } while (notes.hasNext());
+
+        Page<NoteRepository> repositories;
+        pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+        do {
+            repositories = repositoryRepository.findAll(pageable);
+            indexRepositories(ids(repositories.getContent(), NoteRepository::getId), repositories.getContent());
+            pageable = repositories.nextPageable();
+        } while (repositories.hasNext());
+
+        Page<User> users;
+        pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+        do {
+            users = userRepository.findAll(pageable);
+            indexUsers(ids(users.getContent(), User::getId), users.getContent());
+            pageable = users.nextPageable();
+        } while (users.hasNext());
+
+        searchIndexService.refresh();
+        searchIndexService.commit();
+        log.info("Search index rebuilt with {} documents in {} ms",
+                searchIndexService.documentCount(), System.currentTimeMillis() - started);
+    }
+
+    private void indexNotes(Collection<Long> ids, List<Note> notes) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        Set<Long> missing = new HashSet<>(ids);
+        Map<Long, List<Long>> sharedWith = groupByTarget(sharedNoteRepository.findShareLinksByNoteIds(ids));
+
+        for (Note note : notes) {
+            missing.remove(note.getId());
+            if (note.getDeletedAt() != null) {
+                searchIndexService.delete(SearchDocumentType.NOTE, note.getId());
+                continue;
+            }
+
+            Document document = new Document();
+            SearchIndexService.addText(document, SearchIndexService.FIELD_TITLE, note.getTitle());
+            SearchIndexService.addText(document, SearchIndexService.FIELD_CONTENT, note.getContent());
+            SearchIndexService.addKeyword(document, SearchIndexService.FIELD_VISIBILITY, note.getVisibility());
+            SearchIndexService.addKeyword(document, SearchIndexService.FIELD_OWNER, note.getCreator().getId());
+            sharedWith.getOrDefault(note.getId(), List.of())
+                    .forEach(userId -> SearchIndexService.addKeyword(document, SearchIndexService.FIELD_SHARED_WITH, userId));
+            searchIndexService.upsert(SearchDocumentType.NOTE, note.getId(), document);
+        }
+
+        missing.forEach(id -> searchIndexService.delete(SearchDocumentType.NOTE, id));
+    }
+
+    private void indexRepositories(Collection<Long> ids, List<NoteRepository> repositories) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        Set<Long> missing = new HashSet<>(ids);
+        Map<Long, List<Long>> sharedWith = groupByTarget(sharedRepositoryRepository.findShareLinksByRepositoryIds(ids));
+
+        for (NoteRepository repository : repositories) {
+            missing.remove(repository.getId());
+            if (repository.getDeletedAt() != null) {
+                searchIndexService.delete(SearchDocumentType.REPOSITORY, repository.getId());
+                continue;
+            }
+
+            Document document = new Document();
+            SearchIndexService.addText(document, SearchIndexService.FIELD_NAME, repository.getName());
+            SearchIndexService.addText(document, SearchIndexService.FIELD_DESCRIPTION, repository.getDescription());
+            SearchIndexService.addKeyword(document, SearchIndexService.FIELD_VISIBILITY, repository.getVisibility());
+            SearchIndexService.addKeyword(document, SearchIndexService.FIELD_OWNER, repository.getCreator().getId());
+            sharedWith.getOrDefault(repository.getId(), List.of())
+                    .forEach(userId -> SearchIndexService.addKeyword(document, SearchIndexService.FIELD_SHARED_WITH, userId));
+            searchIndexService.upsert(SearchDocumentType.REPOSITORY, repository.getId(), document);
+        }
+
+        missing.forEach(id -> searchIndexService.delete(SearchDocumentType.REPOSITORY, id));
+    }
+
+    private void indexUsers(Collection<Long> ids, List<User> users) {
+        Set<Long> missing = new HashSet<>(ids);
+
+        for (User user : users) {
+            missing.remove(user.getId());
+            if (user.getDeletedAt() != null) {
+                searchIndexService.delete(SearchDocumentType.USER, user.getId());
+                continue;
+            }
+
+            Document document = new Document();
+            SearchIndexService.addText(document, SearchIndexService.FIELD_USERNAME, user.getUsername());
+            SearchIndexService.addText(document, SearchIndexService.FIELD_FIRST_NAME, user.getFirstName());
+            SearchIndexService.addText(document, SearchIndexService.FIELD_LAST_NAME, user.getLastName());
+            SearchIndexService.addText(document, SearchIndexService.FIELD_NICKNAME, user.getNickname());
+            searchIndexService.upsert(SearchDocumentType.USER, user.getId(), document);
+        }
+
+        missing.forEach(id -> searchIndexService.delete(SearchDocumentType.USER, id));
+    }
+
+    private static Map<Long, List<Long>> groupByTarget(List<ShareLink> links) {
+        return links.stream().collect(Collectors.groupingBy(ShareLink::getTargetId,
+                Collectors.mapping(ShareLink::getUserId, Collectors.toList())));
+    }
+
+    private static <T> List<Long> ids(List<T> entities, Function<T, Long> idGetter) {
+        return entities.stream().map(idGetter).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,6 @@
+package com.notesphere.search;
+
+public interface ShareLink {
+    Long getTargetId();
+    Long getUserId();
+}
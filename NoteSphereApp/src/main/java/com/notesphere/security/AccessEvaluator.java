@@ -0,0 +1,183 @@
+package com.notesphere.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.notesphere.model.PermissionType;
+import com.notesphere.model.Visibility;
+import com.notesphere.repository.NoteRepository;
+import com.notesphere.repository.RepositoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves a user's effective permission on notes and repositories: owner, public
+ * visibility, a direct share or, for notes, a share of a repository containing the note.
+ * Owners get WRITE, public targets at least READ. Results are kept per user for a short
+ * time; the sharing methods evict the affected user, content changes the affected target.
+ */
+@Component
+public class AccessEvaluator {
+    // Cache key of unauthenticated viewers, who can only ever see public content
+    private static final long ANONYMOUS = 0L;
+
+    private final NoteRepository noteRepository;
+    private final RepositoryRepository repositoryRepository;
+    private final Cache<Long, UserAcl> acls;
+
+    public AccessEvaluator(NoteRepository noteRepository,
+                           RepositoryRepository repositoryRepository,
+                           @Value("${notesphere.acl-cache.max-users:10000}") long maxUsers,
+                           @Value("${notesphere.acl-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.noteRepository = noteRepository;
+        this.repositoryRepository = repositoryRepository;
+        this.acls = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Returns the user's permission on the note, or null when the user has no access or the note does not exist.
+     */
+    public PermissionType notePermission(Long userId, Long noteId) {
+        return notePermissions(userId, List.of(noteId)).get(noteId);
+    }
+
+    /**
+     * Resolves a whole page of notes with at most one query; inaccessible notes are absent from the result.
+     */
+    public Map<Long, PermissionType> notePermissions(Long userId, Collection<Long> noteIds) {
+        return resolve(userId, noteIds, UserAcl::notes, noteRepository::findAccessRows);
+    }
+
+    public boolean canReadNote(Long userId, Long noteId) {
+        return notePermission(userId, noteId) != null;
+    }
+
+    public <T> List<T> filterReadableNotes(Long userId, List<T> items, Function<T, Long> noteId) {
+        Map<Long, PermissionType> permissions = notePermissions(userId,
+                items.stream().map(noteId).collect(Collectors.toList()));
+        return items.stream()
+                .filter(item -> permissions.containsKey(noteId.apply(item)))
+                .collect(Collectors.toList());
+    }
+
+    public PermissionType repositoryPermission(Long userId, Long repositoryId) {
+        return repositoryPermissions(userId, List.of(repositoryId)).get(repositoryId);
+    }
+
+    public Map<Long, PermissionType> repositoryPermissions(Long userId, Collection<Long> repositoryIds) {
+        return resolve(userId, repositoryIds, UserAcl::repositories, repositoryRepository::findAccessRows);
+    }
+
+    /**
+     * For share changes: drops the user's cached permissions. Inside a transaction the
+     * eviction is repeated after commit so a concurrent read cannot re-cache the old share.
+     */
+    public void evictUser(Long userId) {
+        afterCommitToo(() -> acls.invalidate(userId));
+    }
+
+    /**
+     * For visibility, ownership or repository membership changes of a note.
+     */
+    public void evictNote(Long noteId) {
+        afterCommitToo(() -> acls.asMap().values().forEach(acl -> acl.notes().remove(noteId)));
+    }
+
+    /**
+     * For visibility changes of a repository; the notes in it inherit its shares, so they are dropped as well.
+     */
+    public void evictRepository(Long repositoryId) {
+        afterCommitToo(() -> acls.asMap().values().forEach(acl -> {
+            acl.repositories().remove(repositoryId);
+            acl.notes().clear();
+        }));
+    }
+
+    private Map<Long, PermissionType> resolve(Long userId, Collection<Long> ids,
+                                              Function<UserAcl, Map<Long, Access>> section,
+                                              BiFunction<Collection<Long>, Long, List<AccessRow>> loader) {
+        Map<Long, Access> cached = section.apply(acls.get(userId == null ? ANONYMOUS : userId, key -> new UserAcl()));
+
+        Map<Long, PermissionType> permissions = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : ids) {
+            Access access = cached.get(id);
+            if (access == null) {
+                missing.add(id);
+            } else if (access.permission != null) {
+                permissions.put(id, access.permission);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (AccessRow row : loader.apply(missing, userId)) {
+                Access access = evaluate(row, userId);
+                cached.put(row.getTargetId(), access);
+                if (access.permission != null) {
+                    permissions.put(row.getTargetId(), access.permission);
+                }
+            }
+        }
+        return permissions;
+    }
+
+    private Access evaluate(AccessRow row, Long userId) {
+        if (userId != null && userId.equals(row.getCreatorId())) {
+            return Access.WRITE;
+        }
+        int shareLevel = row.getShareLevel() == null ? 0 : row.getShareLevel();
+        if (shareLevel >= 2) {
+            return Access.WRITE;
+        }
+        if (shareLevel == 1 || row.getVisibility() == Visibility.PUBLIC) {
+            return Access.READ;
+        }
+        return Access.NONE;
+    }
+
+    private void afterCommitToo(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private enum Access {
+        NONE(null),
+        READ(PermissionType.READ),
+        WRITE(PermissionType.WRITE);
+
+        private final PermissionType permission;
+
+        Access(PermissionType permission) {
+            this.permission = permission;
+        }
+    }
+
+    private record UserAcl(Map<Long, Access> notes, Map<Long, Access> repositories) {
+        UserAcl() {
+            this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+}
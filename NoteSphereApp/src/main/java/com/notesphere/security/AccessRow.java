@@ -0,0 +1,14 @@
+package com.notesphere.security;
+
+import com.notesphere.model.Visibility;
+
+/**
+ * Everything needed to decide a user's permission on a note or repository.
+ * shareLevel is 2 for a WRITE share, 1 for a READ share and 0 for none.
+ */
+public interface AccessRow {
+    Long getTargetId();
+    Long getCreatorId();
+    Visibility getVisibility();
+    Integer getShareLevel();
+}
@@ -0,0 +1,127 @@
+package com.notesphere.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps verified tokens and loaded principals in memory so that authenticated
+ * requests do not need to re-verify the JWT or hit the database.
+ */
+@Component
+public class AuthenticationCache {
+
+    private final JwtTokenProvider tokenProvider;
+    private final UserDetailsService userDetailsService;
+    private final Cache<String, TokenPrincipal> tokens;
+    private final Cache<String, UserDetails> users;
+
+    public AuthenticationCache(JwtTokenProvider tokenProvider,
+                               UserDetailsService userDetailsService,
+                               @Value("${notesphere.auth-cache.max-tokens:10000}") long maxTokens,
+                               @Value("${notesphere.auth-cache.max-users:10000}") long maxUsers,
+                               @Value("${notesphere.auth-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.tokenProvider = tokenProvider;
+        this.userDetailsService = userDetailsService;
+
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxTokens)
+                .expireAfter(new Expiry<String, TokenPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String token, TokenPrincipal principal, long currentTime) {
+                        // Never keep a token longer than the token itself is valid
+                        long untilExpiry = TimeUnit.MILLISECONDS.toNanos(
+                                principal.expiresAtMillis() - System.currentTimeMillis());
+                        return Math.max(0, Math.min(ttlNanos, untilExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, TokenPrincipal principal,
+                                                  long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, TokenPrincipal principal,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Returns the principal for a token, or null when the token is invalid or the user no longer exists.
+     */
+    public UserDetails resolve(String token) {
+        TokenPrincipal principal = tokens.get(token, this::verify);
+        if (principal == null) {
+            return null;
+        }
+        try {
+            return users.get(principal.username(), this::load);
+        } catch (UsernameNotFoundException ex) {
+            tokens.invalidate(token);
+            return null;
+        }
+    }
+
+    /**
+     * Drops everything cached for the user. Inside a transaction the eviction is
+     * repeated after commit so a concurrent request cannot re-cache stale state.
+     */
+    public void evictUser(String username) {
+        evictNow(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(username);
+                }
+            });
+        }
+    }
+
+    private void evictNow(String username) {
+        users.invalidate(username);
+        tokens.asMap().values().removeIf(principal -> principal.username().equals(username));
+    }
+
+    private TokenPrincipal verify(String token) {
+        Claims claims = tokenProvider.parseValidClaims(token);
+        if (claims == null || claims.getSubject() == null) {
+            return null;
+        }
+        long expiresAt = claims.getExpiration() != null
+                ? claims.getExpiration().getTime()
+                : Long.MAX_VALUE;
+        return new TokenPrincipal(claims.getSubject(), expiresAt);
+    }
+
+    private UserDetails load(String username) {
+        // The cached copy carries no password hash
+        return User.withUserDetails(userDetailsService.loadUserByUsername(username))
+                .password("")
+                .build();
+    }
+
+    private record TokenPrincipal(String username, long expiresAtMillis) {
+    }
+}
@@ -1,9 +1,14 @@
 package com.notesphere.security;
 
 import io.jsonwebtoken.*;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.Date;
 
 @Component
@@ -15,6 +20,19 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private int jwtExpirationInMs;
 
+    private Key signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        // Key and parser are immutable and thread-safe, so they are built once
+        signingKey = new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8),
+                SignatureAlgorithm.HS256.getJcaName());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     public String generateToken(Authentication authentication) {
         String username = authentication.getName();
         Date now = new Date();
@@ -24,42 +42,44 @@ public class JwtTokenProvider {
                 .setSubject(username)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(SignatureAlgorithm.HS256, jwtSecret.getBytes())
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(jwtSecret.getBytes())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
-    }
-
-    public boolean validateToken(String authToken) {
+    /**
+     * Verifies the token once and returns its claims, or null when the token is not valid.
+     */
+    public Claims parseValidClaims(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(jwtSecret.getBytes())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            return parser.parseClaimsJws(token).getBody();
         } catch (SecurityException ex) {
             // Invalid JWT signature
-            return false;
+            return null;
         } catch (MalformedJwtException ex) {
             // Invalid JWT token
-            return false;
+            return null;
         } catch (ExpiredJwtException ex) {
             // Expired JWT token
-            return false;
+            return null;
         } catch (UnsupportedJwtException ex) {
             // Unsupported JWT token
-            return false;
+            return null;
         } catch (IllegalArgumentException ex) {
             // JWT claims string is empty
-            return false;
+            return null;
         }
     }
-} 
\ No newline at end of file
+
+    public String validateAndGetUsername(String token) {
+        Claims claims = parseValidClaims(token);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    public String getUsernameFromJWT(String token) {
+        return parser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    public boolean validateToken(String authToken) {
+        return parseValidClaims(authToken) != null;
+    }
+}
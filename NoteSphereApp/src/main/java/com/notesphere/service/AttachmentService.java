@@ -0,0 +1,146 @@
+package com.notesphere.service;
+
+import com.notesphere.dto.attachment.AttachmentResponse;
+import com.notesphere.model.Attachment;
+import com.notesphere.model.Note;
+import com.notesphere.repository.AttachmentRepository;
+import com.notesphere.storage.BlobStore;
+import com.notesphere.storage.StoredBlob;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@Service
+public class AttachmentService {
+    private static final String IMAGE_WEBP = "image/webp";
+    private static final Set<String> INLINE_IMAGE_TYPES = Set.of(
+            MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_GIF_VALUE, IMAGE_WEBP);
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private final AttachmentRepository attachmentRepository;
+    private final BlobStore blobStore;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public AttachmentService(AttachmentRepository attachmentRepository, BlobStore blobStore,
+                             ApplicationEventPublisher eventPublisher) {
+        this.attachmentRepository = attachmentRepository;
+        this.blobStore = blobStore;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Streams the upload into the blob store and records it on the note. Multipart parts
+     * are spooled to disk by the container, so the content is never buffered on the heap.
+     */
+    @Transactional
+    public AttachmentResponse addAttachment(Note note, MultipartFile file) throws IOException {
+        StoredBlob blob = blobStore.store(file.getInputStream());
+
+        Attachment attachment = new Attachment();
+        attachment.setNote(note);
+        attachment.setFilename(StringUtils.hasText(file.getOriginalFilename())
+                ? StringUtils.getFilename(file.getOriginalFilename())
+                : blob.sha256());
+        attachment.setContentType(resolveContentType(blob, file.getContentType()));
+        attachment.setSizeBytes(blob.size());
+        attachment.setSha256(blob.sha256());
+        Attachment saved = attachmentRepository.save(attachment);
+        if (isImage(saved)) {
+            eventPublisher.publishEvent(new ImageAttachedEvent(saved.getSha256()));
+        }
+
+        return new AttachmentResponse(saved.getId(), saved.getFilename(), saved.getContentType(),
+                saved.getSizeBytes(), saved.getCreatedAt());
+    }
+
+    public List<AttachmentResponse> getAttachments(Long noteId) {
+        return attachmentRepository.findResponsesByNoteId(noteId);
+    }
+
+    public Attachment getAttachment(Long noteId, Long attachmentId) {
+        return attachmentRepository.findByIdAndNoteId(attachmentId, noteId)
+                .orElseThrow(() -> new EntityNotFoundException("Attachment not found"));
+    }
+
+    public Path getContentPath(Attachment attachment) {
+        return blobStore.path(attachment.getSha256());
+    }
+
+    /**
+     * Raster images that may be shown inline and thumbnailed. Anything else, SVG included,
+     * is only ever served as a download.
+     */
+    public boolean isImage(Attachment attachment) {
+        return attachment.getContentType() != null && INLINE_IMAGE_TYPES.contains(attachment.getContentType());
+    }
+
+    /**
+     * The client's content type is not trusted: image types are taken from the file's magic
+     * bytes, and a client claiming an image the bytes do not confirm gets a generic type.
+     */
+    private String resolveContentType(StoredBlob blob, String declared) throws IOException {
+        String sniffed = sniffImageType(blobStore.path(blob.sha256()));
+        if (sniffed != null) {
+            return sniffed;
+        }
+        if (!StringUtils.hasText(declared) || declared.toLowerCase(Locale.ROOT).startsWith("image/")) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+        return declared;
+    }
+
+    private static String sniffImageType(Path path) throws IOException {
+        byte[] header = new byte[12];
+        int read;
+        try (InputStream in = Files.newInputStream(path)) {
+            read = in.readNBytes(header, 0, header.length);
+        }
+        if (read >= 8 && startsWith(header, 0, PNG_SIGNATURE)) {
+            return MediaType.IMAGE_PNG_VALUE;
+        }
+        if (read >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return MediaType.IMAGE_JPEG_VALUE;
+        }
+        if (read >= 6 && (startsWith(header, 0, ascii("GIF87a")) || startsWith(header, 0, ascii("GIF89a")))) {
+            return MediaType.IMAGE_GIF_VALUE;
+        }
+        if (read >= 12 && startsWith(header, 0, ascii("RIFF")) && startsWith(header, 8, ascii("WEBP"))) {
+            return IMAGE_WEBP;
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] data, int offset, byte[] prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Removes the attachment row only; the blob may be shared and is left to {@link BlobCollector}.
+     */
+    @Transactional
+    public void deleteAttachment(Long noteId, Long attachmentId) {
+        attachmentRepository.delete(getAttachment(noteId, attachmentId));
+    }
+}
@@ -0,0 +1,81 @@
+package com.notesphere.service;
+
+import com.notesphere.repository.AttachmentRepository;
+import com.notesphere.storage.BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Mark-and-sweep of the blob store: blobs that no attachment row references are deleted once
+ * they have not been stored for the grace period. This covers deleted attachments, notes
+ * removed by cascade and uploads whose transaction rolled back after the blob was written.
+ * An upload has the grace period to commit its row; storing the same content again restarts it.
+ */
+@Service
+public class BlobCollector {
+    private static final Logger log = LoggerFactory.getLogger(BlobCollector.class);
+
+    private final AttachmentRepository attachmentRepository;
+    private final BlobStore blobStore;
+
+    @Value("${notesphere.blobs.grace-hours:24}")
+    private long graceHours;
+
+    @Value("${notesphere.blobs.sweep-batch-size:500}")
+    private int batchSize;
+
+    public BlobCollector(AttachmentRepository attachmentRepository, BlobStore blobStore) {
+        this.attachmentRepository = attachmentRepository;
+        this.blobStore = blobStore;
+    }
+
+    @Scheduled(cron = "${notesphere.blobs.sweep-cron:0 0 4 * * *}")
+    public void sweep() {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(graceHours));
+        try {
+            int deleted = 0;
+            try (Stream<String> candidates = blobStore.findStoredBefore(cutoff)) {
+                Iterator<String> iterator = candidates.iterator();
+                List<String> batch = new ArrayList<>(batchSize);
+                while (iterator.hasNext()) {
+                    batch.add(iterator.next());
+                    if (batch.size() == batchSize || !iterator.hasNext()) {
+                        deleted += sweepBatch(batch, cutoff);
+                        batch.clear();
+                    }
+                }
+            }
+            int temporary = blobStore.deleteTemporaryFilesBefore(cutoff);
+            if (deleted > 0 || temporary > 0) {
+                log.info("Blob sweep removed {} unreferenced blobs and {} temporary files", deleted, temporary);
+            }
+        } catch (IOException e) {
+            log.warn("Blob sweep failed", e);
+        }
+    }
+
+    private int sweepBatch(List<String> hashes, Instant cutoff) throws IOException {
+        Set<String> referenced = new HashSet<>(attachmentRepository.findReferencedSha256In(hashes));
+        int deleted = 0;
+        for (String sha256 : hashes) {
+            // Rechecked under the store's lock: an upload since the query above keeps the blob
+            if (!referenced.contains(sha256) && blobStore.deleteIfStoredBefore(sha256, cutoff)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+}
@@ -1,11 +1,13 @@
 package com.notesphere.service;
 
+import com.notesphere.dto.category.CategoryResponse;
 import com.notesphere.model.Category;
 import com.notesphere.repository.CategoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 public class CategoryService {
@@ -22,8 +24,16 @@ public class CategoryService {
                 .orElseGet(() -> categoryRepository.save(new Category(name)));
     }
 
-    public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+    public List<CategoryResponse> getAllCategories() {
+        return categoryRepository.findAll().stream()
+                .map(CategoryResponse::from)
+                .collect(Collectors.toList());
+    }
+
+    public String getCategoriesETag(List<CategoryResponse> categories) {
+        return ETags.weak(categories.stream()
+                .map(category -> category.getId() + ":" + category.getName())
+                .toArray());
     }
 
     public boolean categoryExists(String name) {
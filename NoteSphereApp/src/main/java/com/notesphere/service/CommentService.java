@@ -33,7 +33,9 @@ public class CommentService {
         comment.setNote(note);
         comment.setCommentableType(CommentableType.NOTE);
         comment.setContent(content);
-        return commentRepository.save(comment);
+        Comment savedComment = commentRepository.save(comment);
+        noteRepository.adjustCommentsCount(noteId, 1);
+        return savedComment;
     }
 
     @Transactional
@@ -60,6 +62,9 @@ public class CommentService {
         }
 
         commentRepository.delete(comment);
+        if (comment.getCommentableType() == CommentableType.NOTE && comment.getNote() != null) {
+            noteRepository.adjustCommentsCount(comment.getNote().getId(), -1);
+        }
     }
 
     public List<Comment> getNoteComments(Long noteId) {
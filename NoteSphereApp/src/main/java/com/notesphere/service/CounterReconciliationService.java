@@ -0,0 +1,73 @@
+package com.notesphere.service;
+
+import com.notesphere.repository.NoteRepository;
+import com.notesphere.repository.RepositoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Repairs drift in the denormalized like/comment/follow/note counters.
+ * Walks the id space in fixed-size windows so every UPDATE stays short and commits on its own.
+ */
+@Service
+public class CounterReconciliationService {
+    private static final Logger log = LoggerFactory.getLogger(CounterReconciliationService.class);
+
+    private final NoteRepository noteRepository;
+    private final RepositoryRepository repositoryRepository;
+
+    @Value("${notesphere.counters.reconcile-batch-size:1000}")
+    private long batchSize;
+
+    public CounterReconciliationService(NoteRepository noteRepository, RepositoryRepository repositoryRepository) {
+        this.noteRepository = noteRepository;
+        this.repositoryRepository = repositoryRepository;
+    }
+
+    @Scheduled(initialDelayString = "${notesphere.counters.reconcile-initial-delay-ms:300000}",
+               fixedDelayString = "${notesphere.counters.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        int repairedNotes = reconcileNotes();
+        int repairedRepositories = reconcileRepositories();
+        if (repairedNotes > 0 || repairedRepositories > 0) {
+            log.info("Counter reconciliation repaired {} note rows and {} repository rows",
+                    repairedNotes, repairedRepositories);
+        }
+    }
+
+    public int reconcileNotes() {
+        Long minId = noteRepository.findMinId();
+        Long maxId = noteRepository.findMaxId();
+        if (minId == null || maxId == null) {
+            return 0;
+        }
+
+        int repaired = 0;
+        for (long fromId = minId; fromId <= maxId; fromId += batchSize) {
+            long toId = fromId + batchSize - 1;
+            repaired += noteRepository.reconcileLikesCount(fromId, toId);
+            repaired += noteRepository.reconcileCommentsCount(fromId, toId);
+        }
+        return repaired;
+    }
+
+    public int reconcileRepositories() {
+        Long minId = repositoryRepository.findMinId();
+        Long maxId = repositoryRepository.findMaxId();
+        if (minId == null || maxId == null) {
+            return 0;
+        }
+
+        int repaired = 0;
+        for (long fromId = minId; fromId <= maxId; fromId += batchSize) {
+            long toId = fromId + batchSize - 1;
+            repaired += repositoryRepository.reconcileLikesCount(fromId, toId);
+            repaired += repositoryRepository.reconcileFollowersCount(fromId, toId);
+            repaired += repositoryRepository.reconcileNotesCount(fromId, toId);
+        }
+        return repaired;
+    }
+}
@@ -1,6 +1,7 @@
 package com.notesphere.service;
 
 import com.notesphere.model.User;
+import com.notesphere.model.UserStatus;
 import com.notesphere.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -23,11 +24,7 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .orElseGet(() -> userRepository.findByEmail(usernameOrEmail)
                         .orElseThrow(() -> new UsernameNotFoundException("User not found with username or email: " + usernameOrEmail)));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                new ArrayList<>()
-        );
+        return toUserDetails(user);
     }
 
     @Transactional
@@ -35,9 +32,18 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
 
+        return toUserDetails(user);
+    }
+
+    private UserDetails toUserDetails(User user) {
+        boolean enabled = user.getStatus() == UserStatus.ACTIVE && user.getDeletedAt() == null;
         return new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
                 user.getPassword(),
+                enabled,
+                true,
+                true,
+                true,
                 new ArrayList<>()
         );
     }
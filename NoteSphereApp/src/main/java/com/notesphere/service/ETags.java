@@ -0,0 +1,21 @@
+package com.notesphere.service;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Builds weak entity tags from the values a response depends on, so a conditional
+ * request can be answered before the response itself is loaded.
+ */
+public final class ETags {
+    private ETags() {
+    }
+
+    public static String weak(Object... parts) {
+        String joined = Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("|"));
+        return "W/\"" + DigestUtils.md5DigestAsHex(joined.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -6,10 +6,15 @@ import com.notesphere.model.User;
 import com.notesphere.model.Visibility;
 import com.notesphere.repository.FollowRepository;
 import com.notesphere.repository.RepositoryRepository;
+import com.notesphere.repository.TimelineEntryRepository;
 import com.notesphere.repository.UserRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import jakarta.persistence.EntityNotFoundException;
 import java.util.List;
@@ -19,37 +24,48 @@ public class FollowService {
     private final FollowRepository followRepository;
     private final UserRepository userRepository;
     private final RepositoryRepository repositoryRepository;
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final TransactionTemplate transactionTemplate;
 
-    public FollowService(FollowRepository followRepository, UserRepository userRepository, RepositoryRepository repositoryRepository) {
+    public FollowService(FollowRepository followRepository, UserRepository userRepository, RepositoryRepository repositoryRepository,
+                         TimelineEntryRepository timelineEntryRepository, PlatformTransactionManager transactionManager) {
         this.followRepository = followRepository;
         this.userRepository = userRepository;
         this.repositoryRepository = repositoryRepository;
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Transactional
     public void followRepository(User follower, Long repositoryId) {
-        if (followRepository.existsByFollowerAndFollowed(follower, getRepository(repositoryId))) {
+        NoteRepository repository = getRepository(repositoryId);
+
+        if (followRepository.existsByFollowerAndFollowed(follower, repository)) {
             throw new IllegalStateException("User already follows this repository");
         }
 
-        NoteRepository repository = getRepository(repositoryId);
-        
         // Check if repository is public or user has access
         if (!repository.getVisibility().equals(Visibility.PUBLIC) && 
             !repository.getCreator().equals(follower)) {
             throw new IllegalStateException("Cannot follow private repository");
         }
 
-        Follow follow = new Follow();
-        follow.setFollower(follower);
-        follow.setFollowed(repository);
-        followRepository.save(follow);
+        try {
+            followRepository.saveAndFlush(newFollow(follower, repository));
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("User already follows this repository", e);
+        }
+        repositoryRepository.adjustFollowersCount(repositoryId, 1);
     }
 
     @Transactional
     public void unfollowRepository(User follower, Long repositoryId) {
-        NoteRepository repository = getRepository(repositoryId);
-        followRepository.deleteByFollowerAndFollowed(follower, repository);
+        int removed = followRepository.deleteFollow(follower.getId(), repositoryId);
+        if (removed > 0) {
+            repositoryRepository.adjustFollowersCount(repositoryId, -removed);
+            timelineEntryRepository.deleteByUserAndRepository(follower.getId(), repositoryId);
+        }
     }
 
     public boolean isFollowing(User follower, Long repositoryId) {
@@ -67,8 +83,8 @@ public class FollowService {
     }
 
     public long getFollowerCount(Long repositoryId) {
-        NoteRepository repository = getRepository(repositoryId);
-        return followRepository.findByFollowed(repository).size();
+        return repositoryRepository.findFollowersCountById(repositoryId)
+            .orElseThrow(() -> new EntityNotFoundException("Repository not found"));
     }
 
     private NoteRepository getRepository(Long repositoryId) {
@@ -76,21 +92,52 @@ public class FollowService {
             .orElseThrow(() -> new EntityNotFoundException("Repository not found"));
     }
 
-    @Transactional
     public void toggleFollow(Long repositoryId, String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
-        NoteRepository repository = repositoryRepository.findById(repositoryId)
-                .orElseThrow(() -> new RuntimeException("Repository not found"));
+        if (!repositoryRepository.existsById(repositoryId)) {
+            throw new RuntimeException("Repository not found");
+        }
+
+        toggleFollow(user, repositoryId);
+    }
+
+    /**
+     * Same scheme as {@link LikeService#toggleLike}: single-row DELETE, otherwise INSERT,
+     * with the unique constraint on (follower_id, followed_id) settling concurrent toggles.
+     * Returns whether the user follows the repository afterwards.
+     */
+    public boolean toggleFollow(User user, Long repositoryId) {
+        Boolean removed = transactionTemplate.execute(status -> {
+            int deleted = followRepository.deleteFollow(user.getId(), repositoryId);
+            if (deleted > 0) {
+                repositoryRepository.adjustFollowersCount(repositoryId, -deleted);
+                timelineEntryRepository.deleteByUserAndRepository(user.getId(), repositoryId);
+            }
+            return deleted > 0;
+        });
+        if (Boolean.TRUE.equals(removed)) {
+            return false;
+        }
 
-        if (followRepository.existsByFollowerAndFollowed(user, repository)) {
-            followRepository.deleteByFollowerAndFollowed(user, repository);
-        } else {
-            Follow follow = new Follow();
-            follow.setFollower(user);
-            follow.setFollowed(repository);
-            followRepository.save(follow);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                followRepository.saveAndFlush(newFollow(user, repositoryRepository.getReferenceById(repositoryId)));
+                repositoryRepository.adjustFollowersCount(repositoryId, 1);
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (!followRepository.existsByFollowerAndFollowed(user, repositoryRepository.getReferenceById(repositoryId))) {
+                throw e;
+            }
         }
+        return true;
+    }
+
+    private Follow newFollow(User follower, NoteRepository repository) {
+        Follow follow = new Follow();
+        follow.setFollower(follower);
+        follow.setFollowed(repository);
+        return follow;
     }
-} 
\ No newline at end of file
+}
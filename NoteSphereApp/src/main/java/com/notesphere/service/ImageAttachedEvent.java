@@ -0,0 +1,16 @@
+package com.notesphere.service;
+
+/**
+ * Published when an image attachment is stored; its thumbnails are generated after commit.
+ */
+public class ImageAttachedEvent {
+    private final String sha256;
+
+    public ImageAttachedEvent(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+}
@@ -0,0 +1,124 @@
+package com.notesphere.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares the indexes declared with {@code @Table(indexes = ...)} on the entities against
+ * the ones that actually exist in the database and reports the missing ones.
+ * An existing index counts when its leading key columns match, whatever its name.
+ */
+@Service
+public class IndexAdvisor {
+    private static final Logger log = LoggerFactory.getLogger(IndexAdvisor.class);
+
+    // INFORMATION_SCHEMA has no view of indexes on SQL Server, so the catalog views are used
+    private static final String INDEX_COLUMNS_SQL =
+            "SELECT t.name AS tableName, i.name AS indexName, c.name AS columnName " +
+            "FROM sys.indexes i " +
+            "JOIN sys.tables t ON t.object_id = i.object_id " +
+            "JOIN sys.schemas s ON s.schema_id = t.schema_id " +
+            "JOIN sys.index_columns ic ON ic.object_id = i.object_id AND ic.index_id = i.index_id " +
+            "JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id " +
+            "WHERE s.name = 'dbo' AND ic.key_ordinal > 0 " +
+            "ORDER BY t.name, i.name, ic.key_ordinal";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${notesphere.index-advisor.enabled:true}")
+    private boolean enabled;
+
+    public IndexAdvisor(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record IndexDefinition(String table, String name, List<String> columns) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportMissingIndexes() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<IndexDefinition> missing = findMissingIndexes();
+            if (missing.isEmpty()) {
+                log.info("All {} expected indexes are present", expectedIndexes().size());
+            }
+            for (IndexDefinition index : missing) {
+                log.warn("Missing index {} on dbo.{} ({})", index.name(), index.table(), String.join(", ", index.columns()));
+            }
+        } catch (Exception e) {
+            log.warn("Could not check database indexes", e);
+        }
+    }
+
+    public List<IndexDefinition> expectedIndexes() {
+        List<IndexDefinition> expected = new ArrayList<>();
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Table table = entity.getJavaType().getAnnotation(Table.class);
+            if (table == null) {
+                continue;
+            }
+            for (Index index : table.indexes()) {
+                List<String> columns = Arrays.stream(index.columnList().split(","))
+                        .map(String::trim)
+                        .toList();
+                expected.add(new IndexDefinition(table.name(), index.name(), columns));
+            }
+        }
+        expected.sort(Comparator.comparing(IndexDefinition::table).thenComparing(IndexDefinition::name));
+        return expected;
+    }
+
+    public List<IndexDefinition> findMissingIndexes() {
+        List<IndexDefinition> existing = existingIndexes();
+        return expectedIndexes().stream()
+                .filter(index -> existing.stream().noneMatch(candidate -> covers(candidate, index)))
+                .toList();
+    }
+
+    private List<IndexDefinition> existingIndexes() {
+        Map<String, IndexDefinition> indexes = new LinkedHashMap<>();
+        jdbcTemplate.query(INDEX_COLUMNS_SQL, rs -> {
+            String table = rs.getString("tableName");
+            String name = rs.getString("indexName");
+            indexes.computeIfAbsent(table + "." + name, key -> new IndexDefinition(table, name, new ArrayList<>()))
+                    .columns().add(rs.getString("columnName"));
+        });
+        return new ArrayList<>(indexes.values());
+    }
+
+    private boolean covers(IndexDefinition existing, IndexDefinition expected) {
+        if (!existing.table().equalsIgnoreCase(expected.table())
+                || existing.columns().size() < expected.columns().size()) {
+            return false;
+        }
+        for (int i = 0; i < expected.columns().size(); i++) {
+            String column = expected.columns().get(i).toLowerCase(Locale.ROOT);
+            if (!existing.columns().get(i).toLowerCase(Locale.ROOT).equals(column)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -4,8 +4,12 @@ import com.notesphere.model.*;
 import com.notesphere.repository.LikeRepository;
 import com.notesphere.repository.NoteRepository;
 import com.notesphere.repository.RepositoryRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import jakarta.persistence.EntityNotFoundException;
 import java.util.List;
@@ -15,11 +19,15 @@ public class LikeService {
     private final LikeRepository likeRepository;
     private final NoteRepository noteRepository;
     private final RepositoryRepository repositoryRepository;
+    private final TransactionTemplate transactionTemplate;
 
-    public LikeService(LikeRepository likeRepository, NoteRepository noteRepository, RepositoryRepository repositoryRepository) {
+    public LikeService(LikeRepository likeRepository, NoteRepository noteRepository, RepositoryRepository repositoryRepository,
+                       PlatformTransactionManager transactionManager) {
         this.likeRepository = likeRepository;
         this.noteRepository = noteRepository;
         this.repositoryRepository = repositoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Transactional
@@ -29,19 +37,20 @@ public class LikeService {
         }
 
         // Verify note exists
-        noteRepository.findById(noteId)
-            .orElseThrow(() -> new EntityNotFoundException("Note not found"));
+        if (!noteRepository.existsById(noteId)) {
+            throw new EntityNotFoundException("Note not found");
+        }
 
-        Like like = new Like();
-        like.setUser(user);
-        like.setLikeableId(noteId);
-        like.setLikeableType(LikeableType.NOTE);
-        likeRepository.save(like);
+        insertLike(user, noteId, LikeableType.NOTE, "Note is already liked by the user");
+        noteRepository.adjustLikesCount(noteId, 1);
     }
 
     @Transactional
     public void unlikeNote(User user, Long noteId) {
-        likeRepository.deleteByUserAndLikeableIdAndLikeableType(user, noteId, LikeableType.NOTE);
+        int removed = likeRepository.deleteLike(user.getId(), noteId, LikeableType.NOTE);
+        if (removed > 0) {
+            noteRepository.adjustLikesCount(noteId, -removed);
+        }
     }
 
     @Transactional
@@ -51,19 +60,51 @@ public class LikeService {
         }
 
         // Verify repository exists
-        repositoryRepository.findById(repositoryId)
-            .orElseThrow(() -> new EntityNotFoundException("Repository not found"));
+        if (!repositoryRepository.existsById(repositoryId)) {
+            throw new EntityNotFoundException("Repository not found");
+        }
 
-        Like like = new Like();
-        like.setUser(user);
-        like.setLikeableId(repositoryId);
-        like.setLikeableType(LikeableType.REPOSITORY);
-        likeRepository.save(like);
+        insertLike(user, repositoryId, LikeableType.REPOSITORY, "Repository is already liked by the user");
+        repositoryRepository.adjustLikesCount(repositoryId, 1);
     }
 
     @Transactional
     public void unlikeRepository(User user, Long repositoryId) {
-        likeRepository.deleteByUserAndLikeableIdAndLikeableType(user, repositoryId, LikeableType.REPOSITORY);
+        int removed = likeRepository.deleteLike(user.getId(), repositoryId, LikeableType.REPOSITORY);
+        if (removed > 0) {
+            repositoryRepository.adjustLikesCount(repositoryId, -removed);
+        }
+    }
+
+    /**
+     * Flips the user's like and returns whether the target is liked afterwards.
+     * Runs as a single-row DELETE, or an INSERT when nothing was deleted, each in its own
+     * transaction. When a concurrent toggle wins the race on the unique constraint the
+     * like already exists, so the losing request ends in the same state instead of failing.
+     */
+    public boolean toggleLike(User user, Long likeableId, LikeableType likeableType) {
+        Boolean removed = transactionTemplate.execute(status -> {
+            int deleted = likeRepository.deleteLike(user.getId(), likeableId, likeableType);
+            if (deleted > 0) {
+                adjustLikesCount(likeableId, likeableType, -deleted);
+            }
+            return deleted > 0;
+        });
+        if (Boolean.TRUE.equals(removed)) {
+            return false;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                likeRepository.saveAndFlush(newLike(user, likeableId, likeableType));
+                adjustLikesCount(likeableId, likeableType, 1);
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (!likeRepository.existsByUserAndLikeableIdAndLikeableType(user, likeableId, likeableType)) {
+                throw e;
+            }
+        }
+        return true;
     }
 
     public boolean hasUserLikedNote(User user, Long noteId) {
@@ -79,10 +120,36 @@ public class LikeService {
     }
 
     public long getNoteLikeCount(Long noteId) {
-        return likeRepository.findByLikeableIdAndLikeableType(noteId, LikeableType.NOTE).size();
+        return noteRepository.findLikesCountById(noteId)
+            .orElseThrow(() -> new EntityNotFoundException("Note not found"));
     }
 
     public long getRepositoryLikeCount(Long repositoryId) {
-        return likeRepository.findByLikeableIdAndLikeableType(repositoryId, LikeableType.REPOSITORY).size();
+        return repositoryRepository.findLikesCountById(repositoryId)
+            .orElseThrow(() -> new EntityNotFoundException("Repository not found"));
+    }
+
+    private void insertLike(User user, Long likeableId, LikeableType likeableType, String duplicateMessage) {
+        try {
+            likeRepository.saveAndFlush(newLike(user, likeableId, likeableType));
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException(duplicateMessage, e);
+        }
+    }
+
+    private Like newLike(User user, Long likeableId, LikeableType likeableType) {
+        Like like = new Like();
+        like.setUser(user);
+        like.setLikeableId(likeableId);
+        like.setLikeableType(likeableType);
+        return like;
+    }
+
+    private void adjustLikesCount(Long likeableId, LikeableType likeableType, long delta) {
+        if (likeableType == LikeableType.NOTE) {
+            noteRepository.adjustLikesCount(likeableId, delta);
+        } else {
+            repositoryRepository.adjustLikesCount(likeableId, delta);
+        }
     }
-} 
\ No newline at end of file
+}
@@ -1,32 +1,70 @@
 package com.notesphere.service;
 
+import com.notesphere.config.MetricsConfig;
+import com.notesphere.dto.CursorPageResponse;
+import com.notesphere.dto.FeedCursor;
+import com.notesphere.dto.message.ConversationResponse;
+import com.notesphere.dto.message.MessageReceiptResponse;
+import com.notesphere.dto.message.MessageResponse;
+import com.notesphere.dto.message.MessageStatusUpdateResponse;
+import com.notesphere.model.Conversation;
 import com.notesphere.model.Message;
 import com.notesphere.model.MessageStatus;
 import com.notesphere.model.User;
+import com.notesphere.repository.ConversationRepository;
 import com.notesphere.repository.MessageRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import jakarta.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class MessageService {
+    public static final String MESSAGE_STATUS_EVENT = "message-status";
+
     private final MessageRepository messageRepository;
+    private final ConversationRepository conversationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
-    public MessageService(MessageRepository messageRepository) {
+    public MessageService(MessageRepository messageRepository, ConversationRepository conversationRepository,
+                          ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
         this.messageRepository = messageRepository;
+        this.conversationRepository = conversationRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Transactional
     public Message sendMessage(User sender, User receiver, String content) {
+        if (sender.getId().equals(receiver.getId())) {
+            throw new IllegalArgumentException("Cannot send a message to yourself");
+        }
+
         Message message = new Message();
         message.setSender(sender);
         message.setReceiver(receiver);
         message.setContent(content);
         message.setStatus(MessageStatus.SENT);
-        return messageRepository.save(message);
+        Message savedMessage = messageRepository.save(message);
+
+        recordMessage(sender, receiver, savedMessage, 0);
+        recordMessage(receiver, sender, savedMessage, 1);
+        return savedMessage;
     }
 
     @Transactional
@@ -38,9 +76,25 @@ public class MessageService {
             throw new IllegalStateException("User is not authorized to delete this message");
         }
 
+        if (message.getDeletedAt() != null) {
+            return;
+        }
+
         // Soft delete
         message.setDeletedAt(LocalDateTime.now());
-        messageRepository.save(message);
+        messageRepository.saveAndFlush(message);
+
+        Long senderId = message.getSender().getId();
+        Long receiverId = message.getReceiver().getId();
+        if (message.getStatus() != MessageStatus.READ) {
+            conversationRepository.decrementUnreadCount(receiverId, senderId, 1);
+        }
+
+        // Only rows still pointing at the deleted message are moved back to the previous one
+        Slice<Message> latest = messageRepository.findHistoryFirstSlice(senderId, receiverId, PageRequest.of(0, 1));
+        Message previous = latest.hasContent() ? latest.getContent().get(0) : null;
+        replaceLastMessage(senderId, receiverId, message, previous);
+        replaceLastMessage(receiverId, senderId, message, previous);
     }
 
     @Transactional
@@ -70,11 +124,94 @@ public class MessageService {
         if (message.getStatus() != MessageStatus.READ) {
             message.setStatus(MessageStatus.READ);
             messageRepository.save(message);
+            conversationRepository.decrementUnreadCount(receiver.getId(), message.getSender().getId(), 1);
+        }
+    }
+
+    /**
+     * Marks every message the peer sent to the receiver up to the given message (or up to now)
+     * as DELIVERED or READ with one UPDATE, and pushes a receipt to the peer's live stream.
+     */
+    @Transactional
+    public MessageStatusUpdateResponse markConversation(User receiver, User peer, Long upToMessageId, MessageStatus status) {
+        EnumSet<MessageStatus> currentStatuses = switch (status) {
+            case DELIVERED -> EnumSet.of(MessageStatus.SENT);
+            case READ -> EnumSet.of(MessageStatus.SENT, MessageStatus.DELIVERED);
+            default -> throw new IllegalArgumentException("Messages can only be marked as delivered or read");
+        };
+
+        LocalDateTime upTo = LocalDateTime.now();
+        if (upToMessageId != null) {
+            Message upToMessage = messageRepository.findById(upToMessageId)
+                .orElseThrow(() -> new EntityNotFoundException("Message not found"));
+            if (!isBetween(upToMessage, receiver, peer)) {
+                throw new IllegalArgumentException("Message does not belong to this conversation");
+            }
+            upTo = upToMessage.getCreatedAt();
+        }
+
+        int updated = messageRepository.updateStatusUpTo(peer.getId(), receiver.getId(), upTo, currentStatuses, status);
+        if (updated > 0 && status == MessageStatus.READ) {
+            conversationRepository.decrementUnreadCount(receiver.getId(), peer.getId(), updated);
+        }
+        if (updated > 0) {
+            MessageReceiptResponse receipt = new MessageReceiptResponse(
+                    receiver.getUsername(), status, upToMessageId, upTo, updated);
+            eventPublisher.publishEvent(new NotificationEvent(peer.getId(), MESSAGE_STATUS_EVENT, receipt));
+        }
+
+        return new MessageStatusUpdateResponse(updated,
+                conversationRepository.findUnreadCount(receiver.getId(), peer.getId()).orElse(0),
+                conversationRepository.sumUnreadCount(receiver.getId()));
+    }
+
+    /**
+     * Inbox of the user, most recent conversation first, served from the conversations table.
+     */
+    public CursorPageResponse<ConversationResponse> getInbox(User user, String cursor, int size) {
+        Pageable limit = FeedCursor.limit(size);
+        Slice<Conversation> slice;
+        if (cursor == null || cursor.isBlank()) {
+            slice = conversationRepository.findInboxFirstSlice(user.getId(), limit);
+        } else {
+            FeedCursor position = FeedCursor.decode(cursor);
+            slice = conversationRepository.findInboxSliceAfter(user.getId(), position.getCreatedAt(), position.getId(), limit);
         }
+
+        List<ConversationResponse> content = slice.getContent().stream()
+                .map(ConversationResponse::from)
+                .toList();
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            Conversation last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = new FeedCursor(last.getLastMessageAt(), last.getId()).encode();
+        }
+        return new CursorPageResponse<>(content, nextCursor, slice.hasNext());
     }
 
-    public List<Message> getConversation(User user1, User user2) {
-        return messageRepository.findConversation(user1, user2);
+    /**
+     * Messages between the two users, newest first, paged backwards from the cursor.
+     */
+    public CursorPageResponse<MessageResponse> getConversation(User user, User peer, String cursor, int size) {
+        Pageable limit = FeedCursor.limit(size);
+        Slice<Message> slice;
+        if (cursor == null || cursor.isBlank()) {
+            slice = messageRepository.findHistoryFirstSlice(user.getId(), peer.getId(), limit);
+        } else {
+            FeedCursor position = FeedCursor.decode(cursor);
+            slice = messageRepository.findHistorySliceAfter(user.getId(), peer.getId(),
+                    position.getCreatedAt(), position.getId(), limit);
+        }
+
+        List<MessageResponse> content = slice.getContent().stream()
+                .map(message -> toMessageResponse(message, user, peer))
+                .toList();
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            Message last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageResponse<>(content, nextCursor, slice.hasNext());
     }
 
     public List<Message> getSentMessages(User sender) {
@@ -90,12 +227,61 @@ public class MessageService {
     }
 
     public List<User> getMessagedUsers(User user) {
-        List<User> senders = messageRepository.findDistinctSenders(user);
-        List<User> receivers = messageRepository.findDistinctReceivers(user);
-        
-        // Combine unique users
-        senders.removeAll(receivers);
-        senders.addAll(receivers);
-        return senders;
+        return conversationRepository.findPeers(user.getId());
+    }
+
+    public MessageResponse toMessageResponse(Message message, User user, User peer) {
+        // Only the ids of the lazy sender/receiver are read, so no extra queries are issued
+        boolean sentByUser = message.getSender().getId().equals(user.getId());
+        MessageResponse response = new MessageResponse();
+        response.setId(message.getId());
+        response.setSenderUsername(sentByUser ? user.getUsername() : peer.getUsername());
+        response.setReceiverUsername(sentByUser ? peer.getUsername() : user.getUsername());
+        response.setContent(message.getContent());
+        response.setStatus(message.getStatus());
+        response.setCreatedAt(message.getCreatedAt());
+        return response;
+    }
+
+    private boolean isBetween(Message message, User user, User peer) {
+        Long senderId = message.getSender().getId();
+        Long receiverId = message.getReceiver().getId();
+        return (senderId.equals(user.getId()) && receiverId.equals(peer.getId()))
+                || (senderId.equals(peer.getId()) && receiverId.equals(user.getId()));
+    }
+
+    private void recordMessage(User user, User peer, Message message, int unreadDelta) {
+        String preview = Conversation.preview(message.getContent());
+        if (conversationRepository.recordMessage(user.getId(), peer.getId(), message.getId(),
+                preview, message.getCreatedAt(), unreadDelta) > 0) {
+            return;
+        }
+
+        // First message between the two: the row is created empty in its own transaction, so losing
+        // the unique constraint to a concurrent first message does not roll back this send
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Conversation conversation = new Conversation();
+                conversation.setUser(user);
+                conversation.setPeer(peer);
+                conversationRepository.saveAndFlush(conversation);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently; the UPDATE below records the message on that row
+        }
+        if (conversationRepository.recordMessage(user.getId(), peer.getId(), message.getId(),
+                preview, message.getCreatedAt(), unreadDelta) == 0) {
+            throw new IllegalStateException("Conversation could not be created");
+        }
+    }
+
+    // An emptied conversation keeps its position in the inbox
+    private void replaceLastMessage(Long userId, Long peerId, Message deleted, Message previous) {
+        if (previous == null) {
+            conversationRepository.replaceLastMessage(userId, peerId, deleted.getId(), null, null, deleted.getCreatedAt());
+        } else {
+            conversationRepository.replaceLastMessage(userId, peerId, deleted.getId(), previous.getId(),
+                    Conversation.preview(previous.getContent()), previous.getCreatedAt());
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.notesphere.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notesphere.dto.note.NoteRequest;
+import com.notesphere.dto.note.NoteResponse;
+import com.notesphere.model.User;
+import com.notesphere.model.Visibility;
+import com.notesphere.repository.NoteRepository;
+import com.notesphere.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams notes in and out as NDJSON. Only one chunk of notes is held in memory at a time;
+ * every imported chunk is committed in its own transaction.
+ */
+@Service
+public class NoteBulkService {
+    private final NoteService noteService;
+    private final NoteRepository noteRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${notesphere.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    public NoteBulkService(NoteService noteService,
+                           NoteRepository noteRepository,
+                           UserRepository userRepository,
+                           ObjectMapper objectMapper) {
+        this.noteService = noteService;
+        this.noteRepository = noteRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Imports one note per line. Chunks that were committed before a failure stay imported.
+     */
+    public long importNotes(InputStream in, String username) throws IOException {
+        User creator = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+
+        long imported = 0;
+        List<NoteRequest> chunk = new ArrayList<>(chunkSize);
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Expected one JSON object per line");
+                }
+                chunk.add(objectMapper.readValue(parser, NoteRequest.class));
+                if (chunk.size() == chunkSize) {
+                    imported += noteService.importNotes(creator, chunk);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += noteService.importNotes(creator, chunk);
+        }
+        return imported;
+    }
+
+    /**
+     * Writes the user's notes newest first, walking a keyset cursor so every page costs the same.
+     */
+    public void exportNotes(String username, OutputStream out) throws IOException {
+        Pageable limit = PageRequest.of(0, chunkSize);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            Slice<NoteResponse> slice = noteRepository.findCreatorFirstSlice(username, username, limit);
+            while (true) {
+                for (NoteResponse note : slice.getContent()) {
+                    writeNote(generator, note);
+                }
+                generator.flush();
+
+                if (!slice.hasNext()) {
+                    break;
+                }
+                NoteResponse last = slice.getContent().get(slice.getNumberOfElements() - 1);
+                slice = noteRepository.findCreatorSliceAfter(username, last.getCreatedAt(), last.getId(),
+                        username, limit);
+            }
+        }
+    }
+
+    private void writeNote(JsonGenerator generator, NoteResponse note) throws IOException {
+        // Same shape as the import format, plus the original id and timestamps
+        generator.writeStartObject();
+        generator.writeNumberField("id", note.getId());
+        generator.writeStringField("title", note.getTitle());
+        generator.writeStringField("content", note.getContent());
+        generator.writeBooleanField("public", note.getVisibility() == Visibility.PUBLIC);
+        generator.writeStringField("createdAt", note.getCreatedAt() != null ? note.getCreatedAt().toString() : null);
+        generator.writeStringField("updatedAt", note.getUpdatedAt() != null ? note.getUpdatedAt().toString() : null);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
@@ -0,0 +1,38 @@
+package com.notesphere.service;
+
+import com.notesphere.dto.note.NoteRepositoryLink;
+import com.notesphere.dto.note.NoteResponse;
+import com.notesphere.repository.NoteRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fills in the repository ids and names of a page of note responses with one query.
+ */
+@Component
+public class NoteRepositoryLinkLoader {
+    private final NoteRepository noteRepository;
+
+    public NoteRepositoryLinkLoader(NoteRepository noteRepository) {
+        this.noteRepository = noteRepository;
+    }
+
+    public void attach(List<NoteResponse> responses) {
+        if (responses.isEmpty()) {
+            return;
+        }
+
+        Map<Long, NoteResponse> responsesById = responses.stream()
+                .collect(Collectors.toMap(NoteResponse::getId, Function.identity()));
+
+        for (NoteRepositoryLink link : noteRepository.findRepositoryLinks(responsesById.keySet())) {
+            NoteResponse response = responsesById.get(link.getNoteId());
+            response.getRepositoryIds().add(link.getRepositoryId());
+            response.getRepositoryNames().add(link.getRepositoryName());
+        }
+    }
+}
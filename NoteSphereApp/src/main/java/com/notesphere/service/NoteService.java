@@ -1,44 +1,88 @@
 package com.notesphere.service;
 
+import com.notesphere.config.MetricsConfig;
+import com.notesphere.dto.note.NoteRepositoryLink;
 import com.notesphere.dto.note.NoteRequest;
 import com.notesphere.dto.note.NoteResponse;
+import com.notesphere.model.Category;
 import com.notesphere.model.Note;
 import com.notesphere.model.NoteRepository;
 import com.notesphere.model.User;
 import com.notesphere.model.Visibility;
 import com.notesphere.model.SharedNote;
 import com.notesphere.model.PermissionType;
-import com.notesphere.model.Like;
 import com.notesphere.model.LikeableType;
+import com.notesphere.search.SearchIndexService;
+import com.notesphere.security.AccessEvaluator;
+import com.notesphere.dto.CursorPageResponse;
+import com.notesphere.dto.FeedCursor;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 import jakarta.persistence.EntityNotFoundException;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.Set;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class NoteService {
     private final com.notesphere.repository.NoteRepository noteRepository;
     private final com.notesphere.repository.UserRepository userRepository;
     private final com.notesphere.repository.RepositoryRepository repositoryRepository;
     private final com.notesphere.repository.SharedNoteRepository sharedNoteRepository;
+    private final com.notesphere.repository.LikeRepository likeRepository;
+    private final SearchIndexService searchIndexService;
+    private final LikeService likeService;
+    private final AccessEvaluator accessEvaluator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final com.notesphere.repository.CategoryRepository categoryRepository;
+    private final AttachmentService attachmentService;
+    private final NoteRepositoryLinkLoader repositoryLinkLoader;
 
     public NoteService(com.notesphere.repository.NoteRepository noteRepository,
                       com.notesphere.repository.UserRepository userRepository,
                       com.notesphere.repository.RepositoryRepository repositoryRepository,
-                      com.notesphere.repository.SharedNoteRepository sharedNoteRepository) {
+                      com.notesphere.repository.SharedNoteRepository sharedNoteRepository,
+                      com.notesphere.repository.LikeRepository likeRepository,
+                      SearchIndexService searchIndexService,
+                      LikeService likeService,
+                      AccessEvaluator accessEvaluator,
+                      ApplicationEventPublisher eventPublisher,
+                      com.notesphere.repository.CategoryRepository categoryRepository,
+                      AttachmentService attachmentService,
+                      NoteRepositoryLinkLoader repositoryLinkLoader) {
         this.noteRepository = noteRepository;
         this.userRepository = userRepository;
         this.repositoryRepository = repositoryRepository;
         this.sharedNoteRepository = sharedNoteRepository;
+        this.likeRepository = likeRepository;
+        this.searchIndexService = searchIndexService;
+        this.likeService = likeService;
+        this.accessEvaluator = accessEvaluator;
+        this.eventPublisher = eventPublisher;
+        this.categoryRepository = categoryRepository;
+        this.attachmentService = attachmentService;
+        this.repositoryLinkLoader = repositoryLinkLoader;
     }
 
+    @Transactional
     public NoteResponse createNote(NoteRequest noteRequest, String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
@@ -56,9 +100,98 @@ public class NoteService {
         }
 
         Note savedNote = noteRepository.save(note);
+        savedNote.getRepositories().forEach(repository -> {
+            repositoryRepository.adjustNotesCount(repository.getId(), 1);
+            publishNotesAdded(repository.getId(), List.of(savedNote.getId()));
+        });
         return convertToNoteResponse(savedNote, username);
     }
 
+    /**
+     * Creates a note together with its uploaded files. A file that cannot be stored rolls the
+     * note back as well; blobs already written are left to the blob sweep.
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public NoteResponse uploadNote(String username, String title, String content, Long categoryId,
+                                   String visibility, List<MultipartFile> files) throws IOException {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+
+        Note note = new Note();
+        note.setTitle(title);
+        note.setContent(content);
+        note.setCreator(user);
+        note.setCreatedAt(LocalDateTime.now());
+        note.setVisibility(Visibility.fromString(visibility));
+        if (categoryId != null) {
+            Category category = categoryRepository.findById(categoryId)
+                    .orElseThrow(() -> new RuntimeException("Category not found"));
+            note.setCategory(category);
+        }
+
+        Note saved = noteRepository.save(note);
+        for (MultipartFile file : files) {
+            if (file != null && !file.isEmpty()) {
+                attachmentService.addAttachment(saved, file);
+            }
+        }
+        return getNoteResponse(saved.getId(), username);
+    }
+
+    /**
+     * Saves a chunk of imported notes in one transaction; inserts are sent as JDBC batches.
+     * The whole chunk is rejected if the creator cannot write to one of its repositories.
+     */
+    @Transactional
+    public int importNotes(User creator, List<NoteRequest> noteRequests) {
+        Set<Long> repositoryIds = noteRequests.stream()
+                .map(NoteRequest::getRepositoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, NoteRepository> repositories = repositoryIds.isEmpty()
+                ? Map.of()
+                : repositoryRepository.findAllById(repositoryIds).stream()
+                        .collect(Collectors.toMap(NoteRepository::getId, Function.identity()));
+        if (!repositoryIds.isEmpty()) {
+            Map<Long, PermissionType> permissions = accessEvaluator.repositoryPermissions(creator.getId(), repositoryIds);
+            for (Long repositoryId : repositoryIds) {
+                if (repositories.containsKey(repositoryId) && permissions.get(repositoryId) != PermissionType.WRITE) {
+                    throw new IllegalStateException("User does not have write permission for this repository");
+                }
+            }
+        }
+
+        List<Note> notes = new ArrayList<>(noteRequests.size());
+        Map<Long, Long> addedPerRepository = new HashMap<>();
+        for (NoteRequest noteRequest : noteRequests) {
+            Note note = new Note();
+            note.setTitle(noteRequest.getTitle());
+            note.setContent(noteRequest.getContent());
+            note.setCreator(creator);
+            note.setVisibility(noteRequest.isPublic() ? Visibility.PUBLIC : Visibility.PRIVATE);
+
+            if (noteRequest.getRepositoryId() != null) {
+                NoteRepository repository = repositories.get(noteRequest.getRepositoryId());
+                if (repository == null) {
+                    throw new RuntimeException("Repository not found");
+                }
+                note.getRepositories().add(repository);
+                addedPerRepository.merge(repository.getId(), 1L, Long::sum);
+            }
+            notes.add(note);
+        }
+
+        noteRepository.saveAll(notes);
+        addedPerRepository.forEach(repositoryRepository::adjustNotesCount);
+        // One fan-out per repository for the whole chunk
+        Map<Long, List<Long>> addedNoteIds = new HashMap<>();
+        notes.forEach(note -> note.getRepositories().forEach(repository ->
+                addedNoteIds.computeIfAbsent(repository.getId(), id -> new ArrayList<>()).add(note.getId())));
+        addedNoteIds.forEach(this::publishNotesAdded);
+        return notes.size();
+    }
+
+    @Transactional
     public NoteResponse updateNote(Long noteId, NoteRequest noteRequest, String username) {
         Note note = noteRepository.findById(noteId)
                 .orElseThrow(() -> new RuntimeException("Note not found"));
@@ -74,12 +207,19 @@ public class NoteService {
         if (noteRequest.getRepositoryId() != null) {
             NoteRepository repository = repositoryRepository.findById(noteRequest.getRepositoryId())
                     .orElseThrow(() -> new RuntimeException("Repository not found"));
-            note.getRepositories().add(repository);
+            if (!note.getRepositories().contains(repository)) {
+                note.getRepositories().add(repository);
+                repositoryRepository.adjustNotesCount(repository.getId(), 1);
+                publishNotesAdded(repository.getId(), List.of(note.getId()));
+            }
         } else {
+            note.getRepositories()
+                    .forEach(repository -> repositoryRepository.adjustNotesCount(repository.getId(), -1));
             note.getRepositories().clear();
         }
 
         Note updatedNote = noteRepository.save(note);
+        accessEvaluator.evictNote(noteId);
         return convertToNoteResponse(updatedNote, username);
     }
 
@@ -93,6 +233,7 @@ public class NoteService {
 
         note.setDeletedAt(LocalDateTime.now());
         noteRepository.save(note);
+        accessEvaluator.evictNote(noteId);
     }
 
     public Page<NoteResponse> getUserNotes(String username, Pageable pageable) {
@@ -104,32 +245,103 @@ public class NoteService {
     }
 
     public Page<NoteResponse> getPublicNotes(Pageable pageable, String currentUsername) {
-        return noteRepository.findByVisibility(Visibility.PUBLIC, pageable)
-                .map(note -> convertToNoteResponse(note, currentUsername));
+        // Page + count + repository links: three statements regardless of the page size
+        Page<NoteResponse> page = noteRepository.findFeedByVisibility(Visibility.PUBLIC, currentUsername, pageable);
+        repositoryLinkLoader.attach(page.getContent());
+        return page;
     }
 
-    @Transactional
-    public void toggleLike(Long noteId, String username) {
-        Note note = noteRepository.findById(noteId)
-                .orElseThrow(() -> new RuntimeException("Note not found"));
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+    public CursorPageResponse<NoteResponse> getPublicNotesFeed(String cursor, int size, String currentUsername) {
+        Pageable limit = FeedCursor.limit(size);
+        Slice<NoteResponse> slice;
+        if (cursor == null || cursor.isEmpty()) {
+            slice = noteRepository.findFeedFirstSlice(Visibility.PUBLIC, currentUsername, limit);
+        } else {
+            FeedCursor position = FeedCursor.decode(cursor);
+            slice = noteRepository.findFeedSliceAfter(Visibility.PUBLIC, position.getCreatedAt(), position.getId(),
+                    currentUsername, limit);
+        }
+        return toCursorPage(slice);
+    }
 
-        boolean hasLiked = note.getLikes().stream()
-                .anyMatch(like -> like.getUser().equals(user));
+    public CursorPageResponse<NoteResponse> getUserNotesFeed(String username, String cursor, int size) {
+        Pageable limit = FeedCursor.limit(size);
+        Slice<NoteResponse> slice;
+        if (cursor == null || cursor.isEmpty()) {
+            slice = noteRepository.findCreatorFirstSlice(username, username, limit);
+        } else {
+            FeedCursor position = FeedCursor.decode(cursor);
+            slice = noteRepository.findCreatorSliceAfter(username, position.getCreatedAt(), position.getId(),
+                    username, limit);
+        }
+        return toCursorPage(slice);
+    }
 
-        if (hasLiked) {
-            note.getLikes().removeIf(like -> like.getUser().equals(user));
+    public CursorPageResponse<NoteResponse> getNotesFeed(Long categoryId, String cursor, int size,
+                                                         String currentUsername) {
+        Pageable limit = FeedCursor.limit(size);
+        Slice<NoteResponse> slice;
+        if (cursor == null || cursor.isEmpty()) {
+            slice = noteRepository.findListingFirstSlice(categoryId, Visibility.PUBLIC, currentUsername, limit);
         } else {
-            Like like = new Like();
-            like.setUser(user);
-            like.setLikeableId(note.getId());
-            like.setLikeableType(LikeableType.NOTE);
-            note.getLikes().add(like);
+            FeedCursor position = FeedCursor.decode(cursor);
+            slice = noteRepository.findListingSliceAfter(categoryId, Visibility.PUBLIC, position.getCreatedAt(),
+                    position.getId(), currentUsername, limit);
         }
+        return toCursorPage(slice);
+    }
 
-        noteRepository.save(note);
+    public NoteResponse getNoteResponse(Long noteId, String currentUsername) {
+        List<NoteResponse> responses = noteRepository.findResponsesByIdIn(List.of(noteId), currentUsername);
+        if (responses.isEmpty()) {
+            throw new EntityNotFoundException("Note not found");
+        }
+        repositoryLinkLoader.attach(responses);
+        return responses.get(0);
+    }
+
+    /**
+     * Weak ETag of {@link #getNoteResponse}, or null when the note does not exist.
+     */
+    public String getNoteETag(Long noteId, String currentUsername) {
+        return noteRepository.findVersion(noteId, currentUsername)
+                .map(version -> {
+                    // The exact links, sorted: aggregates over the ids collide, and link changes leave updatedAt alone
+                    String links = noteRepository.findRepositoryLinks(List.of(noteId)).stream()
+                            .sorted(Comparator.comparing(NoteRepositoryLink::getRepositoryId))
+                            .map(link -> link.getRepositoryId() + ":" + link.getRepositoryName())
+                            .collect(Collectors.joining(","));
+                    return ETags.weak("note", version.getId(), version.getUpdatedAt(), version.getLikesCount(),
+                            version.getCommentsCount(), version.getLiked(), links);
+                })
+                .orElse(null);
+    }
+
+    private CursorPageResponse<NoteResponse> toCursorPage(Slice<NoteResponse> slice) {
+        List<NoteResponse> content = slice.getContent();
+        repositoryLinkLoader.attach(content);
+
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            NoteResponse last = content.get(content.size() - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageResponse<>(content, nextCursor, slice.hasNext());
+    }
+
+    private void publishNotesAdded(Long repositoryId, List<Long> noteIds) {
+        eventPublisher.publishEvent(new NotesAddedToRepositoryEvent(repositoryId, noteIds));
+    }
+
+    public void toggleLike(Long noteId, String username) {
+        if (!noteRepository.existsById(noteId)) {
+            throw new RuntimeException("Note not found");
+        }
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+
+        likeService.toggleLike(user, noteId, LikeableType.NOTE);
     }
 
     private NoteResponse convertToNoteResponse(Note note, String currentUsername) {
@@ -139,7 +351,8 @@ public class NoteService {
         response.setContent(note.getContent());
         response.setCreatorUsername(note.getCreator().getUsername());
         response.setVisibility(note.getVisibility());
-        response.setLikesCount(note.getLikes().size());
+        response.setLikesCount((int) note.getLikesCount());
+        response.setCommentsCount((int) note.getCommentsCount());
         response.setCreatedAt(note.getCreatedAt());
         response.setUpdatedAt(note.getUpdatedAt());
 
@@ -153,7 +366,8 @@ public class NoteService {
         User currentUser = userRepository.findByUsername(currentUsername)
                 .orElse(null);
         if (currentUser != null) {
-            response.setLikedByCurrentUser(note.getLikes().contains(currentUser));
+            response.setLikedByCurrentUser(likeRepository.existsByUserAndLikeableIdAndLikeableType(
+                    currentUser, note.getId(), LikeableType.NOTE));
         }
 
         return response;
@@ -175,6 +389,7 @@ public class NoteService {
         note.setTitle(title);
         note.setContent(content);
         note.setVisibility(visibility);
+        accessEvaluator.evictNote(noteId);
         return noteRepository.save(note);
     }
 
@@ -185,6 +400,7 @@ public class NoteService {
         // Soft delete
         note.setDeletedAt(LocalDateTime.now());
         noteRepository.save(note);
+        accessEvaluator.evictNote(noteId);
     }
 
     public Note getNote(User user, Long noteId) {
@@ -199,8 +415,28 @@ public class NoteService {
         return noteRepository.findSharedWithUser(user);
     }
 
-    public List<Note> searchNotes(User user, String searchTerm) {
-        return noteRepository.searchNotes(searchTerm, user);
+    public Page<NoteResponse> searchNotes(String searchTerm, String currentUsername, Pageable pageable) {
+        Long viewerId = currentUsername == null ? null : userRepository.findByUsername(currentUsername)
+                .map(User::getId)
+                .orElse(null);
+
+        Page<Long> hits = searchIndexService.searchNotes(searchTerm, viewerId, pageable);
+        if (hits.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.getTotalElements());
+        }
+
+        Map<Long, NoteResponse> responsesById = noteRepository.findResponsesByIdIn(hits.getContent(), currentUsername)
+                .stream()
+                .collect(Collectors.toMap(NoteResponse::getId, Function.identity()));
+
+        // Keep the relevance order of the index; hits the index has not caught up on yet are dropped
+        List<NoteResponse> responses = accessEvaluator.filterReadableNotes(viewerId, hits.getContent(), Function.identity())
+                .stream()
+                .map(responsesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        repositoryLinkLoader.attach(responses);
+        return new PageImpl<>(responses, pageable, hits.getTotalElements());
     }
 
     @Transactional
@@ -216,12 +452,14 @@ public class NoteService {
         sharedNote.setSharedWithUser(targetUser);
         sharedNote.setPermissionType(permission);
         sharedNoteRepository.save(sharedNote);
+        accessEvaluator.evictUser(targetUser.getId());
     }
 
     @Transactional
     public void unshareNote(User owner, Long noteId, User targetUser) {
         Note note = getNoteWithAccessCheck(owner, noteId, PermissionType.WRITE);
         sharedNoteRepository.deleteByNoteAndSharedWithUser(note, targetUser);
+        accessEvaluator.evictUser(targetUser.getId());
     }
 
     @Transactional
@@ -233,27 +471,19 @@ public class NoteService {
         
         sharedNote.setPermissionType(newPermission);
         sharedNoteRepository.save(sharedNote);
+        accessEvaluator.evictUser(targetUser.getId());
     }
 
     private Note getNoteWithAccessCheck(User user, Long noteId, PermissionType requiredPermission) {
         Note note = noteRepository.findById(noteId)
             .orElseThrow(() -> new EntityNotFoundException("Note not found"));
 
-        // Check if user is the creator
-        if (note.getCreator().equals(user)) {
-            return note;
+        PermissionType permission = accessEvaluator.notePermission(user != null ? user.getId() : null, noteId);
+        if (permission == null) {
+            throw new IllegalStateException("User does not have access to this note");
         }
 
-        // Check if note is public and read permission is required
-        if (note.getVisibility() == Visibility.PUBLIC && requiredPermission == PermissionType.READ) {
-            return note;
-        }
-
-        // Check shared access
-        SharedNote sharedNote = sharedNoteRepository.findByNoteAndSharedWithUser(note, user)
-            .orElseThrow(() -> new IllegalStateException("User does not have access to this note"));
-
-        if (requiredPermission == PermissionType.WRITE && sharedNote.getPermissionType() != PermissionType.WRITE) {
+        if (requiredPermission == PermissionType.WRITE && permission != PermissionType.WRITE) {
             throw new IllegalStateException("User does not have write permission for this note");
         }
 
@@ -0,0 +1,25 @@
+package com.notesphere.service;
+
+import java.util.List;
+
+/**
+ * Published when notes become part of a repository, once per repository and transaction;
+ * followers' timelines are updated after commit.
+ */
+public class NotesAddedToRepositoryEvent {
+    private final Long repositoryId;
+    private final List<Long> noteIds;
+
+    public NotesAddedToRepositoryEvent(Long repositoryId, List<Long> noteIds) {
+        this.repositoryId = repositoryId;
+        this.noteIds = noteIds;
+    }
+
+    public Long getRepositoryId() {
+        return repositoryId;
+    }
+
+    public List<Long> getNoteIds() {
+        return noteIds;
+    }
+}
@@ -0,0 +1,15 @@
+package com.notesphere.service;
+
+import com.notesphere.model.Notification;
+
+public class NotificationCreatedEvent {
+    private final Notification notification;
+
+    public NotificationCreatedEvent(Notification notification) {
+        this.notification = notification;
+    }
+
+    public Notification getNotification() {
+        return notification;
+    }
+}
@@ -0,0 +1,28 @@
+package com.notesphere.service;
+
+/**
+ * A message for a user's live notification stream, delivered once the publishing transaction commits.
+ */
+public class NotificationEvent {
+    private final Long userId;
+    private final String name;
+    private final Object payload;
+
+    public NotificationEvent(Long userId, String name, Object payload) {
+        this.userId = userId;
+        this.name = name;
+        this.payload = payload;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+}
@@ -0,0 +1,223 @@
+package com.notesphere.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process fan-out of live notifications to connected SSE clients.
+ * <p>
+ * Each connection owns a bounded queue; when a slow client falls behind the oldest
+ * pending events are dropped. Sends happen on the notification executor, never on
+ * the publishing thread, and idle connections only cost a periodic heartbeat. The heartbeat
+ * has its own thread: on the shared scheduler a long reconciliation or blob sweep would
+ * hold it back until idle-timeout proxies dropped every stream.
+ */
+@Component
+public class NotificationHub {
+    private static final Logger log = LoggerFactory.getLogger(NotificationHub.class);
+
+    private final Executor executor;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    @Value("${notesphere.notifications.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${notesphere.notifications.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${notesphere.notifications.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    private ScheduledExecutorService heartbeatScheduler;
+
+    public NotificationHub(@Qualifier("notificationExecutor") Executor executor) {
+        this.executor = executor;
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(ex -> remove(subscriber));
+
+        subscriber.offer(SseEmitter.event().name("connected").data(userId));
+        return emitter;
+    }
+
+    public void publish(Long userId, String eventName, Object payload) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null || userSubscribers.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            subscriber.offer(SseEmitter.event().name(eventName).data(payload));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationEvent(NotificationEvent event) {
+        publish(event.getUserId(), event.getName(), event.getPayload());
+    }
+
+    @PostConstruct
+    public void startHeartbeat() {
+        heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeatScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                heartbeat();
+            } catch (RuntimeException e) {
+                // An exception would cancel the schedule
+                log.warn("Notification heartbeat failed", e);
+            }
+        }, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void heartbeat() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.heartbeat();
+            }
+        }
+    }
+
+    public int getConnectionCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    public long getDroppedEventCount() {
+        return droppedEvents.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatScheduler.shutdownNow();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(s -> s.emitter.complete()));
+        subscribers.clear();
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<SseEmitter.SseEventBuilder> queue = new ArrayDeque<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private boolean draining;
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            boolean schedule;
+            lock.lock();
+            try {
+                if (queue.size() >= queueCapacity) {
+                    queue.pollFirst();
+                    droppedEvents.incrementAndGet();
+                }
+                queue.addLast(event);
+                schedule = !draining;
+                draining = true;
+            } finally {
+                lock.unlock();
+            }
+            if (schedule) {
+                scheduleDrain();
+            }
+        }
+
+        void heartbeat() {
+            lock.lock();
+            try {
+                // Anything already queued keeps the connection alive on its own
+                if (!queue.isEmpty()) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            offer(SseEmitter.event().comment("heartbeat"));
+        }
+
+        private void scheduleDrain() {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                lock.lock();
+                try {
+                    draining = false;
+                } finally {
+                    lock.unlock();
+                }
+                log.warn("Notification executor rejected delivery for user {}", userId);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                lock.lock();
+                try {
+                    event = queue.pollFirst();
+                    if (event == null) {
+                        draining = false;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException ex) {
+                    // Client went away; the emitter callbacks take care of the bookkeeping
+                    lock.lock();
+                    try {
+                        queue.clear();
+                        draining = false;
+                    } finally {
+                        lock.unlock();
+                    }
+                    remove(this);
+                    emitter.completeWithError(ex);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.notesphere.service;
 
 import com.notesphere.model.*;
 import com.notesphere.repository.NotificationRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -10,13 +11,21 @@ import java.util.List;
 
 @Service
 public class NotificationService {
+    public static final String NOTIFICATION_EVENT = "notification";
+
     private final NotificationRepository notificationRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public NotificationService(NotificationRepository notificationRepository) {
+    public NotificationService(NotificationRepository notificationRepository,
+                               ApplicationEventPublisher eventPublisher) {
         this.notificationRepository = notificationRepository;
+        this.eventPublisher = eventPublisher;
     }
 
-    @Transactional
+    /**
+     * Queues a notification for the user. It is written by the {@link NotificationWriter}
+     * after the caller's transaction commits, so the returned instance has no id yet.
+     */
     public Notification createNotification(User user, NotificationType type, Long referenceId, 
                                          ReferenceType referenceType, String content) {
         Notification notification = new Notification();
@@ -26,7 +35,8 @@ public class NotificationService {
         notification.setReferenceType(referenceType);
         notification.setContent(content);
         notification.setRead(false);
-        return notificationRepository.save(notification);
+        eventPublisher.publishEvent(new NotificationCreatedEvent(notification));
+        return notification;
     }
 
     @Transactional
@@ -55,7 +65,6 @@ public class NotificationService {
         return notificationRepository.findByUserAndType(user, type);
     }
 
-    @Transactional
     public void createLikeNotification(User targetUser, User liker, LikeableType type, Long likeableId) {
         String content = String.format("%s liked your %s", 
             liker.getUsername(), 
@@ -70,7 +79,6 @@ public class NotificationService {
         );
     }
 
-    @Transactional
     public void createCommentNotification(User targetUser, User commenter, CommentableType type, Long commentableId) {
         String content = String.format("%s commented on your %s", 
             commenter.getUsername(), 
@@ -85,7 +93,6 @@ public class NotificationService {
         );
     }
 
-    @Transactional
     public void createFriendRequestNotification(User targetUser, User requester) {
         String content = String.format("%s sent you a friend request", requester.getUsername());
 
@@ -98,7 +105,6 @@ public class NotificationService {
         );
     }
 
-    @Transactional
     public void createShareNotification(User targetUser, User sharer, ReferenceType type, Long referenceId) {
         String content = String.format("%s shared a %s with you", 
             sharer.getUsername(), 
@@ -113,7 +119,6 @@ public class NotificationService {
         );
     }
 
-    @Transactional
     public void createFollowNotification(User targetUser, User follower, Long repositoryId) {
         String content = String.format("%s started following your repository", follower.getUsername());
 
@@ -126,7 +131,6 @@ public class NotificationService {
         );
     }
 
-    @Transactional
     public void createMessageNotification(User targetUser, User sender) {
         String content = String.format("You have a new message from %s", sender.getUsername());
 
@@ -0,0 +1,173 @@
+package com.notesphere.service;
+
+import com.notesphere.dto.notification.NotificationResponse;
+import com.notesphere.model.Notification;
+import com.notesphere.repository.NotificationRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persists notifications off the caller's transaction. Notifications are queued once the
+ * business transaction has committed and a single writer thread inserts them in batches,
+ * flushing when a batch is full or the flush interval has passed.
+ */
+@Component
+public class NotificationWriter {
+    private static final Logger log = LoggerFactory.getLogger(NotificationWriter.class);
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationHub notificationHub;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final BlockingQueue<Notification> queue;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong synchronousWrites = new AtomicLong();
+
+    @Value("${notesphere.notifications.writer.batch-size:50}")
+    private int batchSize;
+
+    @Value("${notesphere.notifications.writer.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public NotificationWriter(NotificationRepository notificationRepository,
+                              NotificationHub notificationHub,
+                              PlatformTransactionManager transactionManager,
+                              ObjectProvider<MeterRegistry> meterRegistry,
+                              @Value("${notesphere.notifications.writer.queue-capacity:10000}") int queueCapacity) {
+        this.notificationRepository = notificationRepository;
+        this.notificationHub = notificationHub;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("notesphere.notifications.queue.depth", queue, BlockingQueue::size)
+                    .description("Notifications waiting to be written")
+                    .register(registry);
+            Gauge.builder("notesphere.notifications.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                    .register(registry);
+            FunctionCounter.builder("notesphere.notifications.written", written, AtomicLong::get)
+                    .register(registry);
+            FunctionCounter.builder("notesphere.notifications.failed", failed, AtomicLong::get)
+                    .register(registry);
+            FunctionCounter.builder("notesphere.notifications.synchronous", synchronousWrites, AtomicLong::get)
+                    .description("Notifications written on the caller's thread because the queue was full")
+                    .register(registry);
+        });
+
+        running = true;
+        writerThread = new Thread(this::run, "notification-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        enqueue(event.getNotification());
+    }
+
+    public void enqueue(Notification notification) {
+        if (running && queue.offer(notification)) {
+            return;
+        }
+        // Queue is full (or shutting down): pay for the insert on the calling thread instead of losing it
+        synchronousWrites.incrementAndGet();
+        write(List.of(notification));
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+
+        List<Notification> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            write(remaining.subList(from, Math.min(from + batchSize, remaining.size())));
+        }
+    }
+
+    private void run() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Notification first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remainingNanos <= 0) {
+                        break;
+                    }
+                    Notification next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Notification> batch) {
+        List<Notification> saved;
+        try {
+            saved = transactionTemplate.execute(status -> notificationRepository.saveAll(batch));
+        } catch (RuntimeException ex) {
+            failed.addAndGet(batch.size());
+            log.error("Could not write {} notifications", batch.size(), ex);
+            return;
+        }
+        written.addAndGet(saved.size());
+
+        for (Notification notification : saved) {
+            notificationHub.publish(notification.getUser().getId(), NotificationService.NOTIFICATION_EVENT,
+                    NotificationResponse.from(notification));
+        }
+    }
+}
@@ -1,23 +1,32 @@
 package com.notesphere.service;
 
+import com.notesphere.config.MetricsConfig;
 import com.notesphere.dto.repository.RepositoryRequest;
 import com.notesphere.dto.repository.RepositoryResponse;
+import com.notesphere.dto.repository.RepositoryVersion;
 import com.notesphere.model.NoteRepository;
 import com.notesphere.model.Note;
 import com.notesphere.model.User;
 import com.notesphere.model.Visibility;
 import com.notesphere.model.SharedRepository;
 import com.notesphere.model.PermissionType;
-import com.notesphere.model.Like;
 import com.notesphere.model.LikeableType;
-import com.notesphere.model.Follow;
 import com.notesphere.repository.RepositoryRepository;
 import com.notesphere.repository.UserRepository;
 import com.notesphere.repository.SharedRepositoryRepository;
+import com.notesphere.repository.TimelineEntryRepository;
+import com.notesphere.search.SearchIndexService;
+import com.notesphere.search.ShareLink;
+import com.notesphere.security.AccessEvaluator;
+import com.notesphere.dto.CursorPageResponse;
+import com.notesphere.dto.FeedCursor;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,25 +34,49 @@ import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
 import java.util.Date;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class RepositoryService {
     private final RepositoryRepository repositoryRepository;
     private final UserRepository userRepository;
     private final SharedRepositoryRepository sharedRepositoryRepository;
     private final com.notesphere.repository.NoteRepository noteRepository;
+    private final SearchIndexService searchIndexService;
+    private final LikeService likeService;
+    private final FollowService followService;
+    private final AccessEvaluator accessEvaluator;
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public RepositoryService(RepositoryRepository repositoryRepository,
                            UserRepository userRepository,
                            SharedRepositoryRepository sharedRepositoryRepository,
-                           com.notesphere.repository.NoteRepository noteRepository) {
+                           com.notesphere.repository.NoteRepository noteRepository,
+                           SearchIndexService searchIndexService,
+                           LikeService likeService,
+                           FollowService followService,
+                           AccessEvaluator accessEvaluator,
+                           TimelineEntryRepository timelineEntryRepository,
+                           ApplicationEventPublisher eventPublisher) {
         this.repositoryRepository = repositoryRepository;
         this.userRepository = userRepository;
         this.sharedRepositoryRepository = sharedRepositoryRepository;
         this.noteRepository = noteRepository;
+        this.searchIndexService = searchIndexService;
+        this.likeService = likeService;
+        this.followService = followService;
+        this.accessEvaluator = accessEvaluator;
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public RepositoryResponse createRepository(RepositoryRequest repositoryRequest, String username) {
@@ -73,6 +106,7 @@ public class RepositoryService {
         repository.setVisibility(repositoryRequest.isPublic() ? Visibility.PUBLIC : Visibility.PRIVATE);
 
         NoteRepository updatedRepository = repositoryRepository.save(repository);
+        accessEvaluator.evictRepository(repositoryId);
         return convertToRepositoryResponse(updatedRepository);
     }
 
@@ -85,6 +119,7 @@ public class RepositoryService {
         }
 
         repositoryRepository.delete(repository);
+        accessEvaluator.evictRepository(repositoryId);
     }
 
     public Page<RepositoryResponse> getUserRepositories(String username, Pageable pageable) {
@@ -100,51 +135,70 @@ public class RepositoryService {
                 .map(repository -> convertToRepositoryResponse(repository));
     }
 
-    @Transactional
-    public void toggleFollow(Long repositoryId, String username) {
-        NoteRepository repository = repositoryRepository.findById(repositoryId)
-                .orElseThrow(() -> new RuntimeException("Repository not found"));
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+    /**
+     * Weak ETag of {@link #getPublicRepositories} for the same page, read from the changing columns only.
+     */
+    public String getPublicRepositoriesETag(Pageable pageable) {
+        Page<RepositoryVersion> versions = repositoryRepository.findVersionsByVisibility(Visibility.PUBLIC, pageable);
+        List<Object> parts = new ArrayList<>(List.of("repositories", pageable, versions.getTotalElements()));
+        versions.forEach(version -> parts.add(version.getId() + ":" + version.getUpdatedAt() + ":"
+                + version.getLikesCount() + ":" + version.getFollowersCount() + ":" + version.getNotesCount()));
+        return ETags.weak(parts.toArray());
+    }
 
-        boolean isFollowing = repository.getFollowers().stream()
-                .anyMatch(follow -> follow.getFollower().equals(user));
+    public CursorPageResponse<RepositoryResponse> getPublicRepositoriesFeed(String cursor, int size) {
+        Pageable limit = FeedCursor.limit(size);
+        Slice<NoteRepository> slice;
+        if (cursor == null || cursor.isEmpty()) {
+            slice = repositoryRepository.findFeedFirstSlice(Visibility.PUBLIC, limit);
+        } else {
+            FeedCursor position = FeedCursor.decode(cursor);
+            slice = repositoryRepository.findFeedSliceAfter(Visibility.PUBLIC, position.getCreatedAt(),
+                    position.getId(), limit);
+        }
+        return toCursorPage(slice);
+    }
 
-        if (isFollowing) {
-            repository.getFollowers().removeIf(follow -> follow.getFollower().equals(user));
+    public CursorPageResponse<RepositoryResponse> getUserRepositoriesFeed(String username, String cursor, int size) {
+        Pageable limit = FeedCursor.limit(size);
+        Slice<NoteRepository> slice;
+        if (cursor == null || cursor.isEmpty()) {
+            slice = repositoryRepository.findCreatorFirstSlice(username, limit);
         } else {
-            Follow follow = new Follow();
-            follow.setFollower(user);
-            follow.setFollowed(repository);
-            repository.getFollowers().add(follow);
+            FeedCursor position = FeedCursor.decode(cursor);
+            slice = repositoryRepository.findCreatorSliceAfter(username, position.getCreatedAt(),
+                    position.getId(), limit);
         }
+        return toCursorPage(slice);
+    }
 
-        repositoryRepository.save(repository);
+    private CursorPageResponse<RepositoryResponse> toCursorPage(Slice<NoteRepository> slice) {
+        List<NoteRepository> repositories = slice.getContent();
+
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            NoteRepository last = repositories.get(repositories.size() - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<RepositoryResponse> content = repositories.stream()
+                .map(this::convertToRepositoryResponse)
+                .collect(Collectors.toList());
+        return new CursorPageResponse<>(content, nextCursor, slice.hasNext());
+    }
+
+    public void toggleFollow(Long repositoryId, String username) {
+        followService.toggleFollow(repositoryId, username);
     }
 
-    @Transactional
     public void toggleLike(Long repositoryId, String username) {
-        NoteRepository repository = repositoryRepository.findById(repositoryId)
-                .orElseThrow(() -> new RuntimeException("Repository not found"));
+        if (!repositoryRepository.existsById(repositoryId)) {
+            throw new RuntimeException("Repository not found");
+        }
 
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
-        boolean hasLiked = repository.getLikes().stream()
-                .anyMatch(like -> like.getUser().equals(user));
-
-        if (hasLiked) {
-            repository.getLikes().removeIf(like -> like.getUser().equals(user));
-        } else {
-            Like like = new Like();
-            like.setUser(user);
-            like.setLikeableId(repository.getId());
-            like.setLikeableType(LikeableType.REPOSITORY);
-            repository.getLikes().add(like);
-        }
-
-        repositoryRepository.save(repository);
+        likeService.toggleLike(user, repositoryId, LikeableType.REPOSITORY);
     }
 
     private RepositoryResponse convertToRepositoryResponse(NoteRepository repository) {
@@ -154,7 +208,9 @@ public class RepositoryService {
         response.setDescription(repository.getDescription());
         response.setCreatorUsername(repository.getCreator().getUsername());
         response.setVisibility(repository.getVisibility());
-        response.setNotesCount(repository.getNotes().size());
+        response.setNotesCount((int) repository.getNotesCount());
+        response.setLikesCount((int) repository.getLikesCount());
+        response.setFollowersCount((int) repository.getFollowersCount());
         response.setCreatedAt(repository.getCreatedAt());
         response.setUpdatedAt(repository.getUpdatedAt());
         return response;
@@ -176,6 +232,7 @@ public class RepositoryService {
         repository.setName(name);
         repository.setDescription(description);
         repository.setVisibility(visibility);
+        accessEvaluator.evictRepository(repositoryId);
         return repositoryRepository.save(repository);
     }
 
@@ -186,6 +243,7 @@ public class RepositoryService {
         // Soft delete
         repository.setDeletedAt(LocalDateTime.now());
         repositoryRepository.save(repository);
+        accessEvaluator.evictRepository(repositoryId);
     }
 
     public NoteRepository getRepository(User user, Long repositoryId) {
@@ -200,8 +258,26 @@ public class RepositoryService {
         return repositoryRepository.findSharedWithUser(user);
     }
 
-    public List<NoteRepository> searchRepositories(User user, String searchTerm) {
-        return repositoryRepository.searchRepositories(searchTerm, user);
+    public Page<RepositoryResponse> searchRepositories(String searchTerm, String currentUsername, Pageable pageable) {
+        Long viewerId = currentUsername == null ? null : userRepository.findByUsername(currentUsername)
+                .map(User::getId)
+                .orElse(null);
+
+        Page<Long> hits = searchIndexService.searchRepositories(searchTerm, viewerId, pageable);
+        if (hits.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.getTotalElements());
+        }
+
+        Map<Long, NoteRepository> repositoriesById = repositoryRepository.findAllWithCreatorByIdIn(hits.getContent())
+                .stream()
+                .collect(Collectors.toMap(NoteRepository::getId, Function.identity()));
+
+        List<RepositoryResponse> responses = hits.getContent().stream()
+                .map(repositoriesById::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToRepositoryResponse)
+                .collect(Collectors.toList());
+        return new PageImpl<>(responses, pageable, hits.getTotalElements());
     }
 
     @Transactional
@@ -214,8 +290,15 @@ public class RepositoryService {
             throw new IllegalStateException("User does not have access to this note");
         }
 
-        repository.getNotes().add(note);
-        repositoryRepository.save(repository);
+        // Note owns the repository_notes join table, so the link has to be added on its side
+        if (!note.getRepositories().contains(repository)) {
+            note.getRepositories().add(repository);
+            repository.getNotes().add(note);
+            noteRepository.save(note);
+            repositoryRepository.adjustNotesCount(repositoryId, 1);
+            accessEvaluator.evictNote(noteId);
+            eventPublisher.publishEvent(new NotesAddedToRepositoryEvent(repositoryId, List.of(noteId)));
+        }
     }
 
     @Transactional
@@ -224,8 +307,13 @@ public class RepositoryService {
         Note note = noteRepository.findById(noteId)
             .orElseThrow(() -> new EntityNotFoundException("Note not found"));
 
-        repository.getNotes().remove(note);
-        repositoryRepository.save(repository);
+        if (note.getRepositories().remove(repository)) {
+            repository.getNotes().remove(note);
+            noteRepository.save(note);
+            repositoryRepository.adjustNotesCount(repositoryId, -1);
+            accessEvaluator.evictNote(noteId);
+            timelineEntryRepository.deleteByNoteAndRepository(noteId, repositoryId);
+        }
     }
 
     @Transactional
@@ -241,12 +329,42 @@ public class RepositoryService {
         sharedRepository.setSharedWithUser(targetUser);
         sharedRepository.setPermissionType(permission);
         sharedRepositoryRepository.save(sharedRepository);
+        accessEvaluator.evictUser(targetUser.getId());
+    }
+
+    /**
+     * Shares the repository with every user that does not have access yet; the new rows are inserted in JDBC batches.
+     */
+    @Transactional
+    public int shareRepository(User owner, Long repositoryId, Collection<User> targetUsers, PermissionType permission) {
+        NoteRepository repository = getRepositoryWithAccessCheck(owner, repositoryId, PermissionType.WRITE);
+
+        Set<Long> sharedUserIds = sharedRepositoryRepository.findShareLinksByRepositoryIds(List.of(repositoryId))
+                .stream()
+                .map(ShareLink::getUserId)
+                .collect(Collectors.toSet());
+
+        List<SharedRepository> shares = targetUsers.stream()
+                .filter(targetUser -> sharedUserIds.add(targetUser.getId()))
+                .map(targetUser -> {
+                    SharedRepository sharedRepository = new SharedRepository();
+                    sharedRepository.setRepository(repository);
+                    sharedRepository.setSharedWithUser(targetUser);
+                    sharedRepository.setPermissionType(permission);
+                    return sharedRepository;
+                })
+                .collect(Collectors.toList());
+
+        sharedRepositoryRepository.saveAll(shares);
+        shares.forEach(share -> accessEvaluator.evictUser(share.getSharedWithUser().getId()));
+        return shares.size();
     }
 
     @Transactional
     public void unshareRepository(User owner, Long repositoryId, User targetUser) {
         NoteRepository repository = getRepositoryWithAccessCheck(owner, repositoryId, PermissionType.WRITE);
         sharedRepositoryRepository.deleteByRepositoryAndSharedWithUser(repository, targetUser);
+        accessEvaluator.evictUser(targetUser.getId());
     }
 
     @Transactional
@@ -258,24 +376,19 @@ public class RepositoryService {
         
         sharedRepository.setPermissionType(newPermission);
         sharedRepositoryRepository.save(sharedRepository);
+        accessEvaluator.evictUser(targetUser.getId());
     }
 
     private NoteRepository getRepositoryWithAccessCheck(User user, Long repositoryId, PermissionType requiredPermission) {
         NoteRepository repository = repositoryRepository.findById(repositoryId)
             .orElseThrow(() -> new EntityNotFoundException("Repository not found"));
 
-        if (repository.getCreator().equals(user)) {
-            return repository;
+        PermissionType permission = accessEvaluator.repositoryPermission(user != null ? user.getId() : null, repositoryId);
+        if (permission == null) {
+            throw new IllegalStateException("User does not have access to this repository");
         }
 
-        if (repository.getVisibility() == Visibility.PUBLIC && requiredPermission == PermissionType.READ) {
-            return repository;
-        }
-
-        SharedRepository sharedRepository = sharedRepositoryRepository.findByRepositoryAndSharedWithUser(repository, user)
-            .orElseThrow(() -> new IllegalStateException("User does not have access to this repository"));
-
-        if (requiredPermission == PermissionType.WRITE && sharedRepository.getPermissionType() != PermissionType.WRITE) {
+        if (requiredPermission == PermissionType.WRITE && permission != PermissionType.WRITE) {
             throw new IllegalStateException("User does not have write permission for this repository");
         }
 
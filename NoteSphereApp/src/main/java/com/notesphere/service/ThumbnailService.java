@@ -0,0 +1,200 @@
+package com.notesphere.service;
+
+import com.notesphere.storage.BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Generates JPEG thumbnails of image attachments, bounded to each configured size on the
+ * longest side, and stores them next to the original blob. Generation runs on the thumbnail
+ * executor after the upload commits; a request for a missing thumbnail schedules it again.
+ * Blobs that cannot be decoded get a marker variant, so they are never retried; the content
+ * behind a hash never changes, so neither would the outcome.
+ */
+@Service
+public class ThumbnailService {
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+    private static final String FAILED_VARIANT = "thumbnail-failed";
+
+    private final BlobStore blobStore;
+    private final Executor executor;
+    private final int[] sizes;
+    private final long maxPixels;
+    private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+
+    public ThumbnailService(BlobStore blobStore,
+                            @Qualifier("thumbnailExecutor") Executor executor,
+                            @Value("${notesphere.thumbnails.sizes:160,480,1024}") int[] sizes,
+                            @Value("${notesphere.thumbnails.max-source-pixels:100000000}") long maxPixels) {
+        this.blobStore = blobStore;
+        this.executor = executor;
+        this.sizes = Arrays.stream(sizes).sorted().toArray();
+        this.maxPixels = maxPixels;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageAttached(ImageAttachedEvent event) {
+        schedule(event.getSha256());
+    }
+
+    /**
+     * The smallest configured size at least as large as the requested one, or the largest size.
+     */
+    public int pickSize(int requested) {
+        for (int size : sizes) {
+            if (size >= requested) {
+                return size;
+            }
+        }
+        return sizes[sizes.length - 1];
+    }
+
+    public Optional<Path> findThumbnail(String sha256, int size) {
+        Path path = blobStore.variantPath(sha256, variant(size));
+        if (Files.exists(path)) {
+            return Optional.of(path);
+        }
+        if (!hasFailed(sha256)) {
+            schedule(sha256);
+        }
+        return Optional.empty();
+    }
+
+    private void schedule(String sha256) {
+        if (!scheduled.add(sha256)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(sha256);
+                } catch (Exception e) {
+                    log.warn("Could not generate thumbnails for blob {}", sha256, e);
+                } finally {
+                    scheduled.remove(sha256);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            scheduled.remove(sha256);
+            log.warn("Thumbnail queue is full, blob {} will be processed when requested", sha256);
+        }
+    }
+
+    private void generate(String sha256) throws IOException {
+        if (hasFailed(sha256) || !Files.exists(blobStore.path(sha256))
+                || Arrays.stream(sizes).allMatch(size -> Files.exists(blobStore.variantPath(sha256, variant(size))))) {
+            return;
+        }
+        BufferedImage image;
+        try {
+            image = decode(blobStore.path(sha256), sizes[sizes.length - 1]);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not decode blob {}, no thumbnails will be generated: {}", sha256, e.toString());
+            image = null;
+        }
+        if (image == null) {
+            blobStore.writeVariant(sha256, FAILED_VARIANT, out -> { });
+            return;
+        }
+        // Largest first, each size scaled from the previous one
+        for (int i = sizes.length - 1; i >= 0; i--) {
+            image = scale(image, sizes[i]);
+            BufferedImage thumbnail = image;
+            blobStore.writeVariant(sha256, variant(sizes[i]), out -> ImageIO.write(thumbnail, "jpg", out));
+        }
+    }
+
+    private boolean hasFailed(String sha256) {
+        return Files.exists(blobStore.variantPath(sha256, FAILED_VARIANT));
+    }
+
+    private BufferedImage decode(Path source, int largestSize) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                log.debug("No image reader for {}", source);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    log.warn("Skipping thumbnails for {}: {}x{} is over the pixel limit", source, width, height);
+                    return null;
+                }
+                // Skip source pixels while decoding, keeping twice the largest size for the scaling below
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(width, height) / (2 * largestSize);
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scale(BufferedImage source, int maxSide) {
+        BufferedImage current = source;
+        int longest = Math.max(current.getWidth(), current.getHeight());
+        // Halving steps keep bilinear filtering from dropping detail on large reductions
+        while (longest / 2 >= maxSide) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+            longest = Math.max(current.getWidth(), current.getHeight());
+        }
+        if (longest > maxSide) {
+            double ratio = (double) maxSide / longest;
+            return draw(current, Math.max(1, (int) Math.round(current.getWidth() * ratio)),
+                    Math.max(1, (int) Math.round(current.getHeight() * ratio)));
+        }
+        return current.getType() == BufferedImage.TYPE_INT_RGB
+                ? current
+                : draw(current, current.getWidth(), current.getHeight());
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height) {
+        // JPEG has no alpha channel, so transparent areas are flattened onto white
+        BufferedImage target = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, target.getWidth(), target.getHeight());
+            graphics.drawImage(source, 0, 0, target.getWidth(), target.getHeight(), null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static String variant(int size) {
+        return "w" + size + ".jpg";
+    }
+}
@@ -0,0 +1,190 @@
+package com.notesphere.service;
+
+import com.notesphere.dto.CursorPageResponse;
+import com.notesphere.dto.FeedCursor;
+import com.notesphere.dto.note.NoteResponse;
+import com.notesphere.model.TimelineEntry;
+import com.notesphere.model.User;
+import com.notesphere.repository.FollowRepository;
+import com.notesphere.repository.NoteRepository;
+import com.notesphere.repository.RepositoryRepository;
+import com.notesphere.repository.TimelineEntryRepository;
+import com.notesphere.repository.UserRepository;
+import com.notesphere.security.AccessEvaluator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Home timeline of notes added to followed repositories, with hybrid fan-out.
+ * Repositories with up to {@code push-max-followers} followers push an entry to every
+ * follower's timeline when a note is added; larger ones are pulled when the timeline is read.
+ * A page is one range read on timeline_entries plus, if the user follows large
+ * repositories, one keyset query over their notes.
+ */
+@Service
+public class TimelineService {
+    private static final Logger log = LoggerFactory.getLogger(TimelineService.class);
+    private static final int FAN_OUT_BATCH = 1000;
+
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final FollowRepository followRepository;
+    private final RepositoryRepository repositoryRepository;
+    private final NoteRepository noteRepository;
+    private final UserRepository userRepository;
+    private final NoteRepositoryLinkLoader repositoryLinkLoader;
+    private final AccessEvaluator accessEvaluator;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+
+    @Value("${notesphere.timeline.push-max-followers:10000}")
+    private long pushMaxFollowers;
+
+    @Value("${notesphere.timeline.retention-days:90}")
+    private long retentionDays;
+
+    public TimelineService(TimelineEntryRepository timelineEntryRepository,
+                           FollowRepository followRepository,
+                           RepositoryRepository repositoryRepository,
+                           NoteRepository noteRepository,
+                           UserRepository userRepository,
+                           NoteRepositoryLinkLoader repositoryLinkLoader,
+                           AccessEvaluator accessEvaluator,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier("timelineExecutor") Executor executor) {
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.followRepository = followRepository;
+        this.repositoryRepository = repositoryRepository;
+        this.noteRepository = noteRepository;
+        this.userRepository = userRepository;
+        this.repositoryLinkLoader = repositoryLinkLoader;
+        this.accessEvaluator = accessEvaluator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotesAdded(NotesAddedToRepositoryEvent event) {
+        executor.execute(() -> fanOut(event));
+    }
+
+    private void fanOut(NotesAddedToRepositoryEvent event) {
+        try {
+            long followers = repositoryRepository.findFollowersCountById(event.getRepositoryId()).orElse(0L);
+            if (followers == 0 || followers > pushMaxFollowers) {
+                // Nobody to push to, or the repository is read on the pull side
+                return;
+            }
+            List<Long> noteIds = event.getNoteIds();
+            int inserted = 0;
+            // Bounded IN lists; SQL Server takes at most 2100 parameters per statement
+            for (int from = 0; from < noteIds.size(); from += FAN_OUT_BATCH) {
+                List<Long> batch = noteIds.subList(from, Math.min(from + FAN_OUT_BATCH, noteIds.size()));
+                Integer batchInserted = transactionTemplate.execute(status ->
+                        timelineEntryRepository.fanOut(batch, event.getRepositoryId()));
+                inserted += batchInserted == null ? 0 : batchInserted;
+            }
+            log.debug("Pushed {} notes of repository {} as {} timeline entries",
+                    noteIds.size(), event.getRepositoryId(), inserted);
+        } catch (Exception e) {
+            log.error("Could not fan out {} notes of repository {}", event.getNoteIds().size(), event.getRepositoryId(), e);
+        }
+    }
+
+    public CursorPageResponse<NoteResponse> getHomeTimeline(String username, String cursor, int size) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        Pageable limit = FeedCursor.limit(size);
+        FeedCursor position = cursor == null || cursor.isEmpty() ? null : FeedCursor.decode(cursor);
+
+        Slice<TimelineEntry> pushed = position == null
+                ? timelineEntryRepository.findFirstSlice(user.getId(), limit)
+                : timelineEntryRepository.findSliceAfter(user.getId(), position.getCreatedAt(), position.getId(), limit);
+
+        List<Long> pulledRepositoryIds = followRepository.findFollowedRepositoryIdsWithFollowersAbove(
+                user.getId(), pushMaxFollowers);
+        Slice<NoteResponse> pulled = null;
+        if (!pulledRepositoryIds.isEmpty()) {
+            pulled = position == null
+                    ? noteRepository.findInRepositoriesFirstSlice(pulledRepositoryIds, username, limit)
+                    : noteRepository.findInRepositoriesSliceAfter(pulledRepositoryIds, position.getCreatedAt(),
+                            position.getId(), username, limit);
+        }
+
+        // Merge both sides on (createdAt, id); a note can be on both when a repository crossed the threshold
+        Map<Long, LocalDateTime> candidates = new HashMap<>();
+        pushed.forEach(entry -> candidates.put(entry.getId().getNoteId(), entry.getCreatedAt()));
+        Map<Long, NoteResponse> responsesById = new HashMap<>();
+        if (pulled != null) {
+            pulled.forEach(response -> {
+                candidates.putIfAbsent(response.getId(), response.getCreatedAt());
+                responsesById.put(response.getId(), response);
+            });
+        }
+        List<Map.Entry<Long, LocalDateTime>> ordered = candidates.entrySet().stream()
+                .sorted((a, b) -> {
+                    int byTime = b.getValue().compareTo(a.getValue());
+                    return byTime != 0 ? byTime : b.getKey().compareTo(a.getKey());
+                })
+                .collect(Collectors.toList());
+
+        int pageSize = limit.getPageSize();
+        boolean hasNext = pushed.hasNext() || (pulled != null && pulled.hasNext()) || ordered.size() > pageSize;
+        List<Map.Entry<Long, LocalDateTime>> page = ordered.subList(0, Math.min(pageSize, ordered.size()));
+
+        List<Long> toLoad = page.stream()
+                .map(Map.Entry::getKey)
+                .filter(noteId -> !responsesById.containsKey(noteId))
+                .collect(Collectors.toList());
+        if (!toLoad.isEmpty()) {
+            noteRepository.findResponsesByIdIn(toLoad, username)
+                    .forEach(response -> responsesById.put(response.getId(), response));
+        }
+
+        Map<Long, NoteResponse> pageResponses = new LinkedHashMap<>();
+        page.forEach(entry -> pageResponses.put(entry.getKey(), responsesById.get(entry.getKey())));
+        List<NoteResponse> content = accessEvaluator.filterReadableNotes(user.getId(),
+                        new ArrayList<>(pageResponses.keySet()), noteId -> noteId)
+                .stream()
+                .map(pageResponses::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        repositoryLinkLoader.attach(content);
+
+        // The cursor follows the merged order, so notes filtered out above do not stall paging
+        String nextCursor = null;
+        if (hasNext && !page.isEmpty()) {
+            Map.Entry<Long, LocalDateTime> last = page.get(page.size() - 1);
+            nextCursor = new FeedCursor(last.getValue(), last.getKey()).encode();
+        }
+        return new CursorPageResponse<>(content, nextCursor, hasNext);
+    }
+
+    @Scheduled(cron = "${notesphere.timeline.cleanup-cron:0 30 3 * * *}")
+    public void removeExpiredEntries() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        Integer removed = transactionTemplate.execute(status -> timelineEntryRepository.deleteOlderThan(cutoff));
+        if (removed != null && removed > 0) {
+            log.info("Removed {} timeline entries older than {} days", removed, retentionDays);
+        }
+    }
+}
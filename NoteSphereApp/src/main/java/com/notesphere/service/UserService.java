@@ -1,8 +1,14 @@
 package com.notesphere.service;
 
+import com.notesphere.dto.user.UserSummaryResponse;
 import com.notesphere.model.User;
 import com.notesphere.model.UserStatus;
 import com.notesphere.repository.UserRepository;
+import com.notesphere.search.SearchIndexService;
+import com.notesphere.security.AuthenticationCache;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,15 +17,24 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final SearchIndexService searchIndexService;
+    private final AuthenticationCache authenticationCache;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       SearchIndexService searchIndexService, AuthenticationCache authenticationCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.searchIndexService = searchIndexService;
+        this.authenticationCache = authenticationCache;
     }
 
     @Transactional
@@ -66,6 +81,7 @@ public class UserService {
         user.setDeletedAt(LocalDateTime.now());
         user.setStatus(UserStatus.INACTIVE);
         userRepository.save(user);
+        authenticationCache.evictUser(user.getUsername());
     }
 
     @Transactional
@@ -79,6 +95,7 @@ public class UserService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        authenticationCache.evictUser(user.getUsername());
     }
 
     @Transactional
@@ -104,6 +121,7 @@ public class UserService {
             .orElseThrow(() -> new EntityNotFoundException("User not found"));
         user.setStatus(status);
         userRepository.save(user);
+        authenticationCache.evictUser(user.getUsername());
     }
 
     public User getUserById(Long userId) {
@@ -121,8 +139,31 @@ public class UserService {
             .orElseThrow(() -> new EntityNotFoundException("User not found with email: " + email));
     }
 
-    public List<User> searchUsers(String searchTerm) {
-        return userRepository.searchUsers(searchTerm);
+    public Page<UserSummaryResponse> searchUsers(String searchTerm, Pageable pageable) {
+        Page<Long> hits = searchIndexService.searchUsers(searchTerm, pageable);
+        if (hits.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.getTotalElements());
+        }
+
+        Map<Long, User> usersById = userRepository.findAllById(hits.getContent()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<UserSummaryResponse> responses = hits.getContent().stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToUserSummary)
+                .collect(Collectors.toList());
+        return new PageImpl<>(responses, pageable, hits.getTotalElements());
+    }
+
+    private UserSummaryResponse convertToUserSummary(User user) {
+        UserSummaryResponse response = new UserSummaryResponse();
+        response.setId(user.getId());
+        response.setUsername(user.getUsername());
+        response.setFirstName(user.getFirstName());
+        response.setLastName(user.getLastName());
+        response.setNickname(user.getNickname());
+        return response;
     }
 
     public List<User> getUsersByStatus(UserStatus status) {
@@ -0,0 +1,204 @@
+package com.notesphere.storage;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed file store on local disk. Content is streamed to a temporary file while
+ * its SHA-256 is computed, then renamed to {@code <root>/ab/cd/<sha256>}, so identical
+ * uploads end up as one file and nothing is held in memory beyond a copy buffer.
+ * Blobs are never deleted when a reference goes away; unreferenced ones older than a grace
+ * period are swept instead. Storing content that already exists refreshes its timestamp, and
+ * both run under a per-hash lock, so a sweep cannot remove a blob an upload is about to use.
+ */
+@Component
+public class BlobStore {
+    private static final Logger log = LoggerFactory.getLogger(BlobStore.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path root;
+    private final Path tmpDir;
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+
+    public BlobStore(@Value("${notesphere.blobs.dir:./data/blobs}") String root) {
+        this.root = Paths.get(root);
+        // Same file system as the blobs, so the final rename is atomic
+        this.tmpDir = this.root.resolve("tmp");
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(tmpDir);
+        log.info("Blob store opened at {}", root.toAbsolutePath());
+    }
+
+    public StoredBlob store(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(tmpDir, "upload-", ".tmp");
+        try {
+            long size = 0;
+            try (InputStream in = content; OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                    size += read;
+                }
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = path(hash);
+            Lock lock = lockFor(hash);
+            lock.lock();
+            try {
+                if (Files.exists(target)) {
+                    // Restarts the grace period, so the sweep keeps it until our reference is committed
+                    Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                } else {
+                    Files.createDirectories(target.getParent());
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } finally {
+                lock.unlock();
+            }
+            return new StoredBlob(hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Path path(String sha256) {
+        if (sha256 == null || !SHA256_HEX.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Invalid blob hash: " + sha256);
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    /**
+     * Path of a file derived from a blob, such as a thumbnail, kept next to the original.
+     */
+    public Path variantPath(String sha256, String variant) {
+        Path original = path(sha256);
+        return original.resolveSibling(sha256 + "." + variant);
+    }
+
+    /**
+     * Writes a derived file through a temporary file, so readers never see it half written.
+     */
+    public void writeVariant(String sha256, String variant, VariantWriter writer) throws IOException {
+        Path target = variantPath(sha256, variant);
+        Path temp = Files.createTempFile(tmpDir, "variant-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.write(out);
+            }
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Hashes of the blobs last stored before the cutoff. The stream must be closed.
+     */
+    public Stream<String> findStoredBefore(Instant cutoff) throws IOException {
+        return Files.walk(root)
+                .filter(path -> !path.startsWith(tmpDir))
+                .filter(path -> SHA256_HEX.matcher(path.getFileName().toString()).matches())
+                .filter(path -> isOlderThan(path, cutoff))
+                .map(path -> path.getFileName().toString());
+    }
+
+    /**
+     * Deletes the blob and its variants unless it was stored again since the cutoff.
+     */
+    public boolean deleteIfStoredBefore(String sha256, Instant cutoff) throws IOException {
+        Path original = path(sha256);
+        Lock lock = lockFor(sha256);
+        lock.lock();
+        try {
+            if (!Files.exists(original) || !isOlderThan(original, cutoff)) {
+                return false;
+            }
+            Files.delete(original);
+            try (DirectoryStream<Path> variants = Files.newDirectoryStream(original.getParent(), sha256 + ".*")) {
+                for (Path variant : variants) {
+                    Files.deleteIfExists(variant);
+                }
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes temporary files left behind by uploads that did not finish, such as after a crash.
+     */
+    public int deleteTemporaryFilesBefore(Instant cutoff) throws IOException {
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(tmpDir)) {
+            for (Path file : files) {
+                if (isOlderThan(file, cutoff) && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    @FunctionalInterface
+    public interface VariantWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private Lock lockFor(String sha256) {
+        return locks[Integer.parseInt(sha256.substring(0, 2), 16) % LOCK_STRIPES];
+    }
+
+    private static boolean isOlderThan(Path path, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(path).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            // Gone or unreadable: not ours to delete in this pass
+            return false;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.notesphere.storage;
+
+/**
+ * A blob written to the {@link BlobStore}: its SHA-256 in lowercase hex and its size in bytes.
+ */
+public record StoredBlob(String sha256, long size) {
+}
@@ -0,0 +1,24 @@
+-- Denormalized counters on notes and note_repositories.
+-- Kept up to date by the services; CounterReconciliationService repairs drift.
+
+ALTER TABLE dbo.notes ADD
+    likesCount bigint NOT NULL CONSTRAINT DF_notes_likesCount DEFAULT 0,
+    commentsCount bigint NOT NULL CONSTRAINT DF_notes_commentsCount DEFAULT 0;
+
+ALTER TABLE dbo.note_repositories ADD
+    likesCount bigint NOT NULL CONSTRAINT DF_note_repositories_likesCount DEFAULT 0,
+    followersCount bigint NOT NULL CONSTRAINT DF_note_repositories_followersCount DEFAULT 0,
+    notesCount bigint NOT NULL CONSTRAINT DF_note_repositories_notesCount DEFAULT 0;
+GO
+
+UPDATE n SET
+    likesCount = (SELECT COUNT(*) FROM dbo.likes l WHERE l.likeable_id = n.id AND l.likeable_type = 'NOTE'),
+    commentsCount = (SELECT COUNT(*) FROM dbo.comments c WHERE c.note_id = n.id AND c.commentable_type = 'NOTE')
+FROM dbo.notes n;
+
+UPDATE r SET
+    likesCount = (SELECT COUNT(*) FROM dbo.likes l WHERE l.likeable_id = r.id AND l.likeable_type = 'REPOSITORY'),
+    followersCount = (SELECT COUNT(*) FROM dbo.follows f WHERE f.followed_id = r.id),
+    notesCount = (SELECT COUNT(*) FROM dbo.repository_notes rn WHERE rn.repository_id = r.id)
+FROM dbo.note_repositories r;
+GO
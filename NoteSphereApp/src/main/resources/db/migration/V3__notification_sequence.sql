@@ -0,0 +1,42 @@
+-- Notifications move from IDENTITY to a pooled sequence so that the
+-- NotificationWriter can insert them in JDBC batches.
+-- IDENTITY cannot be dropped in place, so the rows are switched into an
+-- identical table without it (metadata-only, no data is copied).
+
+CREATE SEQUENCE dbo.notifications_seq AS bigint START WITH 1 INCREMENT BY 50;
+GO
+
+CREATE TABLE dbo.notifications_new (
+    isRead bit not null,
+    createdAt datetime2(6),
+    id bigint not null,
+    referenceId bigint,
+    user_id bigint not null,
+    content TEXT,
+    referenceType varchar(255) check (referenceType in ('NOTE','REPOSITORY','USER','MESSAGE')),
+    type varchar(255) check (type in ('LIKE','COMMENT','FRIEND_REQUEST','SHARE','FOLLOW','MESSAGE')),
+    primary key (id)
+);
+GO
+
+BEGIN TRANSACTION;
+
+ALTER TABLE dbo.notifications DROP CONSTRAINT FK9y21adhxn0ayjhfocscqox7bh;
+ALTER TABLE dbo.notifications SWITCH TO dbo.notifications_new;
+DROP TABLE dbo.notifications;
+EXEC sp_rename 'dbo.notifications_new', 'notifications';
+
+ALTER TABLE dbo.notifications
+    ADD CONSTRAINT FK9y21adhxn0ayjhfocscqox7bh
+    FOREIGN KEY (user_id)
+    REFERENCES dbo.users;
+
+COMMIT TRANSACTION;
+GO
+
+-- Hibernate's pooled optimizer treats each sequence value as the top of a
+-- block of 50, so continue 50 past the highest existing id.
+DECLARE @next bigint = (SELECT ISNULL(MAX(id), 0) + 50 FROM dbo.notifications);
+DECLARE @sql nvarchar(200) = N'ALTER SEQUENCE dbo.notifications_seq RESTART WITH ' + CAST(@next AS nvarchar(20));
+EXEC sp_executesql @sql;
+GO
@@ -0,0 +1,273 @@
+-- Every entity moves from IDENTITY to a pooled sequence (allocation size 50,
+-- pooled-lo optimizer) so Hibernate can batch inserts. notifications was
+-- already converted in V3.
+--
+-- IDENTITY cannot be dropped in place: each table is switched into an
+-- identical table without it, which only touches metadata. Foreign keys,
+-- unique constraints and defaults are dropped first and recreated at the end.
+
+CREATE SEQUENCE dbo.categories_seq AS bigint START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE dbo.comments_seq AS bigint START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE dbo.follows_seq AS bigint START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE dbo.friendships_seq AS bigint START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE dbo.likes_seq AS bigint START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE dbo.messages_seq AS bigint START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE dbo.note_repositories_seq AS bigint START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE dbo.notes_seq AS bigint START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE dbo.shared_notes_seq AS bigint START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE dbo.shared_repositories_seq AS bigint START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE dbo.users_seq AS bigint START WITH 1 INCREMENT BY 50;
+GO
+
+CREATE TABLE dbo.categories_new (
+    id bigint not null,
+    name varchar(255) not null,
+    primary key (id)
+);
+CREATE TABLE dbo.comments_new (
+    createdAt datetime2(6),
+    id bigint not null,
+    note_id bigint not null,
+    updatedAt datetime2(6),
+    user_id bigint not null,
+    commentable_type varchar(255) not null check (commentable_type in ('NOTE','REPOSITORY')),
+    content TEXT,
+    primary key (id)
+);
+CREATE TABLE dbo.follows_new (
+    createdAt datetime2(6),
+    followed_id bigint not null,
+    follower_id bigint not null,
+    id bigint not null,
+    primary key (id)
+);
+CREATE TABLE dbo.friendships_new (
+    createdAt datetime2(6),
+    id bigint not null,
+    receiver_id bigint not null,
+    requester_id bigint not null,
+    updatedAt datetime2(6),
+    status varchar(255) not null check (status in ('PENDING','ACCEPTED','REJECTED','BLOCKED')),
+    primary key (id)
+);
+CREATE TABLE dbo.likes_new (
+    createdAt datetime2(6),
+    id bigint not null,
+    likeable_id bigint not null,
+    user_id bigint not null,
+    likeable_type varchar(255) not null check (likeable_type in ('NOTE','REPOSITORY')),
+    primary key (id)
+);
+CREATE TABLE dbo.messages_new (
+    createdAt datetime2(6),
+    deletedAt datetime2(6),
+    id bigint not null,
+    receiver_id bigint not null,
+    sender_id bigint not null,
+    content TEXT,
+    status varchar(255) check (status in ('SENT','DELIVERED','READ')),
+    primary key (id)
+);
+CREATE TABLE dbo.note_repositories_new (
+    createdAt datetime2(6),
+    creator_id bigint not null,
+    deletedAt datetime2(6),
+    id bigint not null,
+    updatedAt datetime2(6),
+    description varchar(255),
+    name varchar(255) not null,
+    visibility varchar(255) not null check (visibility in ('PUBLIC','PRIVATE')),
+    likesCount bigint not null,
+    followersCount bigint not null,
+    notesCount bigint not null,
+    primary key (id)
+);
+CREATE TABLE dbo.notes_new (
+    category_id bigint,
+    createdAt datetime2(6),
+    creator_id bigint not null,
+    deletedAt datetime2(6),
+    id bigint not null,
+    updatedAt datetime2(6),
+    content TEXT,
+    title varchar(255),
+    visibility varchar(255) check (visibility in ('PUBLIC','PRIVATE')),
+    likesCount bigint not null,
+    commentsCount bigint not null,
+    primary key (id)
+);
+CREATE TABLE dbo.shared_notes_new (
+    createdAt datetime2(6),
+    id bigint not null,
+    note_id bigint not null,
+    user_id bigint not null,
+    permissionType varchar(255) not null check (permissionType in ('READ','WRITE')),
+    primary key (id)
+);
+CREATE TABLE dbo.shared_repositories_new (
+    createdAt datetime2(6),
+    id bigint not null,
+    repository_id bigint not null,
+    user_id bigint not null,
+    permissionType varchar(255) not null check (permissionType in ('READ','WRITE')),
+    primary key (id)
+);
+CREATE TABLE dbo.users_new (
+    createdAt datetime2(6),
+    dateOfBirth datetime2(6),
+    deletedAt datetime2(6),
+    id bigint not null,
+    lastLoginAt datetime2(6),
+    updatedAt datetime2(6),
+    aboutMe TEXT,
+    email varchar(255),
+    firstName varchar(255),
+    lastName varchar(255),
+    nickname varchar(255),
+    password varchar(255),
+    phoneNumber varchar(255),
+    status varchar(255) check (status in ('ACTIVE','INACTIVE','BANNED')),
+    username varchar(255),
+    primary key (id)
+);
+GO
+
+BEGIN TRANSACTION;
+
+ALTER TABLE dbo.comments DROP CONSTRAINT FK9iabamoajs0wme1dmrp7tfqv6;
+ALTER TABLE dbo.comments DROP CONSTRAINT FK8omq0tc18jd43bu5tjh6jvraq;
+ALTER TABLE dbo.follows DROP CONSTRAINT FKfn8b8fg2ldipv2sbbplknlinn;
+ALTER TABLE dbo.follows DROP CONSTRAINT FKqnkw0cwwh6572nyhvdjqlr163;
+ALTER TABLE dbo.friendships DROP CONSTRAINT FKpk7w2cj6m9n224ny2t7fhi47;
+ALTER TABLE dbo.friendships DROP CONSTRAINT FKas6bp8so5n3pfcqtfxt72e1ii;
+ALTER TABLE dbo.likes DROP CONSTRAINT FKnvx9seeqqyy71bij291pwiwrg;
+ALTER TABLE dbo.likes DROP CONSTRAINT FKfvy4kjn3cytsp5ahibcklvhsh;
+ALTER TABLE dbo.messages DROP CONSTRAINT FKt05r0b6n0iis8u7dfna4xdh73;
+ALTER TABLE dbo.messages DROP CONSTRAINT FK4ui4nnwntodh6wjvck53dbk9m;
+ALTER TABLE dbo.note_repositories DROP CONSTRAINT FK89e5jj1dxnnapwdfk9ojo5y0v;
+ALTER TABLE dbo.notes DROP CONSTRAINT FKt8k9l9q6louhlu7udo6r6l1et;
+ALTER TABLE dbo.notes DROP CONSTRAINT FK36j06rxyunv0c9is8wpk050bv;
+ALTER TABLE dbo.notifications DROP CONSTRAINT FK9y21adhxn0ayjhfocscqox7bh;
+ALTER TABLE dbo.shared_notes DROP CONSTRAINT FKf8g69qsjifnm46xwjausrbs52;
+ALTER TABLE dbo.shared_notes DROP CONSTRAINT FK6yly1benh4saccq0vyhsuqvw2;
+ALTER TABLE dbo.shared_repositories DROP CONSTRAINT FKiin2e1v0g6gvjj38ykmxap4y6;
+ALTER TABLE dbo.shared_repositories DROP CONSTRAINT FK7s9yfyrxggiu2xj6cd4lpsysb;
+ALTER TABLE dbo.repository_notes DROP CONSTRAINT FKf57745t1en88cbr6brdl9cnxo;
+ALTER TABLE dbo.repository_notes DROP CONSTRAINT FK8tgm0owb1p56wns45sdm6bf07;
+
+ALTER TABLE dbo.categories DROP CONSTRAINT UK_t8o6pivur7nn124jehx7cygw5;
+DROP INDEX UK_6dotkott2kjsp8vw4d0m25fb7 ON dbo.users;
+DROP INDEX UK_r43af9ap4edm43mmtq01oddj6 ON dbo.users;
+ALTER TABLE dbo.notes DROP CONSTRAINT DF_notes_likesCount;
+ALTER TABLE dbo.notes DROP CONSTRAINT DF_notes_commentsCount;
+ALTER TABLE dbo.note_repositories DROP CONSTRAINT DF_note_repositories_likesCount;
+ALTER TABLE dbo.note_repositories DROP CONSTRAINT DF_note_repositories_followersCount;
+ALTER TABLE dbo.note_repositories DROP CONSTRAINT DF_note_repositories_notesCount;
+
+ALTER TABLE dbo.categories SWITCH TO dbo.categories_new;
+DROP TABLE dbo.categories;
+EXEC sp_rename 'dbo.categories_new', 'categories';
+
+ALTER TABLE dbo.comments SWITCH TO dbo.comments_new;
+DROP TABLE dbo.comments;
+EXEC sp_rename 'dbo.comments_new', 'comments';
+
+ALTER TABLE dbo.follows SWITCH TO dbo.follows_new;
+DROP TABLE dbo.follows;
+EXEC sp_rename 'dbo.follows_new', 'follows';
+
+ALTER TABLE dbo.friendships SWITCH TO dbo.friendships_new;
+DROP TABLE dbo.friendships;
+EXEC sp_rename 'dbo.friendships_new', 'friendships';
+
+ALTER TABLE dbo.likes SWITCH TO dbo.likes_new;
+DROP TABLE dbo.likes;
+EXEC sp_rename 'dbo.likes_new', 'likes';
+
+ALTER TABLE dbo.messages SWITCH TO dbo.messages_new;
+DROP TABLE dbo.messages;
+EXEC sp_rename 'dbo.messages_new', 'messages';
+
+ALTER TABLE dbo.note_repositories SWITCH TO dbo.note_repositories_new;
+DROP TABLE dbo.note_repositories;
+EXEC sp_rename 'dbo.note_repositories_new', 'note_repositories';
+
+ALTER TABLE dbo.notes SWITCH TO dbo.notes_new;
+DROP TABLE dbo.notes;
+EXEC sp_rename 'dbo.notes_new', 'notes';
+
+ALTER TABLE dbo.shared_notes SWITCH TO dbo.shared_notes_new;
+DROP TABLE dbo.shared_notes;
+EXEC sp_rename 'dbo.shared_notes_new', 'shared_notes';
+
+ALTER TABLE dbo.shared_repositories SWITCH TO dbo.shared_repositories_new;
+DROP TABLE dbo.shared_repositories;
+EXEC sp_rename 'dbo.shared_repositories_new', 'shared_repositories';
+
+ALTER TABLE dbo.users SWITCH TO dbo.users_new;
+DROP TABLE dbo.users;
+EXEC sp_rename 'dbo.users_new', 'users';
+
+ALTER TABLE dbo.notes ADD CONSTRAINT DF_notes_likesCount DEFAULT 0 FOR likesCount;
+ALTER TABLE dbo.notes ADD CONSTRAINT DF_notes_commentsCount DEFAULT 0 FOR commentsCount;
+ALTER TABLE dbo.note_repositories ADD CONSTRAINT DF_note_repositories_likesCount DEFAULT 0 FOR likesCount;
+ALTER TABLE dbo.note_repositories ADD CONSTRAINT DF_note_repositories_followersCount DEFAULT 0 FOR followersCount;
+ALTER TABLE dbo.note_repositories ADD CONSTRAINT DF_note_repositories_notesCount DEFAULT 0 FOR notesCount;
+
+ALTER TABLE dbo.categories ADD CONSTRAINT UK_t8o6pivur7nn124jehx7cygw5 UNIQUE (name);
+CREATE UNIQUE NONCLUSTERED INDEX UK_6dotkott2kjsp8vw4d0m25fb7 ON dbo.users (email) WHERE email IS NOT NULL;
+CREATE UNIQUE NONCLUSTERED INDEX UK_r43af9ap4edm43mmtq01oddj6 ON dbo.users (username) WHERE username IS NOT NULL;
+
+ALTER TABLE dbo.comments ADD CONSTRAINT FK9iabamoajs0wme1dmrp7tfqv6 FOREIGN KEY (note_id) REFERENCES dbo.notes;
+ALTER TABLE dbo.comments ADD CONSTRAINT FK8omq0tc18jd43bu5tjh6jvraq FOREIGN KEY (user_id) REFERENCES dbo.users;
+ALTER TABLE dbo.follows ADD CONSTRAINT FKfn8b8fg2ldipv2sbbplknlinn FOREIGN KEY (followed_id) REFERENCES dbo.note_repositories;
+ALTER TABLE dbo.follows ADD CONSTRAINT FKqnkw0cwwh6572nyhvdjqlr163 FOREIGN KEY (follower_id) REFERENCES dbo.users;
+ALTER TABLE dbo.friendships ADD CONSTRAINT FKpk7w2cj6m9n224ny2t7fhi47 FOREIGN KEY (receiver_id) REFERENCES dbo.users;
+ALTER TABLE dbo.friendships ADD CONSTRAINT FKas6bp8so5n3pfcqtfxt72e1ii FOREIGN KEY (requester_id) REFERENCES dbo.users;
+ALTER TABLE dbo.likes ADD CONSTRAINT FKnvx9seeqqyy71bij291pwiwrg FOREIGN KEY (user_id) REFERENCES dbo.users;
+ALTER TABLE dbo.likes ADD CONSTRAINT FKfvy4kjn3cytsp5ahibcklvhsh FOREIGN KEY (likeable_id) REFERENCES dbo.note_repositories;
+ALTER TABLE dbo.messages ADD CONSTRAINT FKt05r0b6n0iis8u7dfna4xdh73 FOREIGN KEY (receiver_id) REFERENCES dbo.users;
+ALTER TABLE dbo.messages ADD CONSTRAINT FK4ui4nnwntodh6wjvck53dbk9m FOREIGN KEY (sender_id) REFERENCES dbo.users;
+ALTER TABLE dbo.note_repositories ADD CONSTRAINT FK89e5jj1dxnnapwdfk9ojo5y0v FOREIGN KEY (creator_id) REFERENCES dbo.users;
+ALTER TABLE dbo.notes ADD CONSTRAINT FKt8k9l9q6louhlu7udo6r6l1et FOREIGN KEY (category_id) REFERENCES dbo.categories;
+ALTER TABLE dbo.notes ADD CONSTRAINT FK36j06rxyunv0c9is8wpk050bv FOREIGN KEY (creator_id) REFERENCES dbo.users;
+ALTER TABLE dbo.notifications ADD CONSTRAINT FK9y21adhxn0ayjhfocscqox7bh FOREIGN KEY (user_id) REFERENCES dbo.users;
+ALTER TABLE dbo.shared_notes ADD CONSTRAINT FKf8g69qsjifnm46xwjausrbs52 FOREIGN KEY (note_id) REFERENCES dbo.notes;
+ALTER TABLE dbo.shared_notes ADD CONSTRAINT FK6yly1benh4saccq0vyhsuqvw2 FOREIGN KEY (user_id) REFERENCES dbo.users;
+ALTER TABLE dbo.shared_repositories ADD CONSTRAINT FKiin2e1v0g6gvjj38ykmxap4y6 FOREIGN KEY (repository_id) REFERENCES dbo.note_repositories;
+ALTER TABLE dbo.shared_repositories ADD CONSTRAINT FK7s9yfyrxggiu2xj6cd4lpsysb FOREIGN KEY (user_id) REFERENCES dbo.users;
+ALTER TABLE dbo.repository_notes ADD CONSTRAINT FKf57745t1en88cbr6brdl9cnxo FOREIGN KEY (repository_id) REFERENCES dbo.note_repositories;
+ALTER TABLE dbo.repository_notes ADD CONSTRAINT FK8tgm0owb1p56wns45sdm6bf07 FOREIGN KEY (note_id) REFERENCES dbo.notes;
+
+COMMIT TRANSACTION;
+GO
+
+-- With pooled-lo each sequence value is the first id of a block, so every
+-- sequence restarts right after the highest id already in its table.
+DECLARE @sql nvarchar(max) = N'';
+SELECT @sql = @sql + N'ALTER SEQUENCE dbo.' + t.name + N'_seq RESTART WITH ' + CAST(t.next_id AS nvarchar(20)) + N'; '
+FROM (
+    SELECT 'categories' AS name, ISNULL(MAX(id), 0) + 1 AS next_id FROM dbo.categories
+    UNION ALL
+    SELECT 'comments' AS name, ISNULL(MAX(id), 0) + 1 AS next_id FROM dbo.comments
+    UNION ALL
+    SELECT 'follows' AS name, ISNULL(MAX(id), 0) + 1 AS next_id FROM dbo.follows
+    UNION ALL
+    SELECT 'friendships' AS name, ISNULL(MAX(id), 0) + 1 AS next_id FROM dbo.friendships
+    UNION ALL
+    SELECT 'likes' AS name, ISNULL(MAX(id), 0) + 1 AS next_id FROM dbo.likes
+    UNION ALL
+    SELECT 'messages' AS name, ISNULL(MAX(id), 0) + 1 AS next_id FROM dbo.messages
+    UNION ALL
+    SELECT 'note_repositories' AS name, ISNULL(MAX(id), 0) + 1 AS next_id FROM dbo.note_repositories
+    UNION ALL
+    SELECT 'notes' AS name, ISNULL(MAX(id), 0) + 1 AS next_id FROM dbo.notes
+    UNION ALL
+    SELECT 'shared_notes' AS name, ISNULL(MAX(id), 0) + 1 AS next_id FROM dbo.shared_notes
+    UNION ALL
+    SELECT 'shared_repositories' AS name, ISNULL(MAX(id), 0) + 1 AS next_id FROM dbo.shared_repositories
+    UNION ALL
+    SELECT 'users' AS name, ISNULL(MAX(id), 0) + 1 AS next_id FROM dbo.users
+) t;
+EXEC sp_executesql @sql;
+GO
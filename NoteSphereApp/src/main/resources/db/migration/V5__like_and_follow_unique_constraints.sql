@@ -0,0 +1,31 @@
+-- One like per (user, target) and one follow per (follower, repository).
+-- The toggles rely on these to resolve concurrent requests; duplicates left
+-- behind by the old check-then-insert code are removed first and the
+-- counters recomputed for the affected rows.
+
+DELETE l FROM dbo.likes l
+WHERE EXISTS (SELECT 1 FROM dbo.likes d
+              WHERE d.user_id = l.user_id
+                AND d.likeable_id = l.likeable_id
+                AND d.likeable_type = l.likeable_type
+                AND d.id < l.id);
+
+DELETE f FROM dbo.follows f
+WHERE EXISTS (SELECT 1 FROM dbo.follows d
+              WHERE d.follower_id = f.follower_id
+                AND d.followed_id = f.followed_id
+                AND d.id < f.id);
+GO
+
+UPDATE n SET likesCount = (SELECT COUNT(*) FROM dbo.likes l WHERE l.likeable_id = n.id AND l.likeable_type = 'NOTE')
+FROM dbo.notes n;
+
+UPDATE r SET
+    likesCount = (SELECT COUNT(*) FROM dbo.likes l WHERE l.likeable_id = r.id AND l.likeable_type = 'REPOSITORY'),
+    followersCount = (SELECT COUNT(*) FROM dbo.follows f WHERE f.followed_id = r.id)
+FROM dbo.note_repositories r;
+GO
+
+ALTER TABLE dbo.likes ADD CONSTRAINT UQ_likes_user_likeable UNIQUE (user_id, likeable_id, likeable_type);
+ALTER TABLE dbo.follows ADD CONSTRAINT UQ_follows_follower_followed UNIQUE (follower_id, followed_id);
+GO
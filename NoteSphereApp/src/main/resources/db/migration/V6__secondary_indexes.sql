@@ -0,0 +1,11 @@
+-- Secondary indexes for the lookups issued by the repositories. Names match
+-- the @Index declarations on the entities, which IndexAdvisor checks at startup.
+
+CREATE INDEX IX_likes_likeable ON dbo.likes (likeable_id, likeable_type);
+CREATE INDEX IX_notifications_user_read_created ON dbo.notifications (user_id, isRead, createdAt);
+CREATE INDEX IX_messages_sender_receiver_created ON dbo.messages (sender_id, receiver_id, createdAt);
+CREATE INDEX IX_follows_followed ON dbo.follows (followed_id);
+CREATE INDEX IX_shared_notes_note_user ON dbo.shared_notes (note_id, user_id);
+CREATE INDEX IX_notes_visibility_created ON dbo.notes (visibility, createdAt);
+CREATE INDEX IX_notes_creator_created ON dbo.notes (creator_id, createdAt);
+GO
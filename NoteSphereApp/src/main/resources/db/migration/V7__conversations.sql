@@ -0,0 +1,47 @@
+-- Per-participant conversation summaries backing the message inbox: one row
+-- per (user, peer) with the last message and the user's unread count.
+
+CREATE SEQUENCE dbo.conversations_seq AS bigint START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE dbo.conversations (
+    id bigint not null,
+    user_id bigint not null,
+    peer_id bigint not null,
+    lastMessageId bigint,
+    lastMessagePreview varchar(255),
+    lastMessageAt datetime2(6),
+    unreadCount int NOT NULL CONSTRAINT DF_conversations_unreadCount DEFAULT 0,
+    primary key (id),
+    CONSTRAINT UQ_conversations_user_peer UNIQUE (user_id, peer_id),
+    CONSTRAINT FK_conversations_user FOREIGN KEY (user_id) REFERENCES dbo.users,
+    CONSTRAINT FK_conversations_peer FOREIGN KEY (peer_id) REFERENCES dbo.users
+);
+
+CREATE INDEX IX_conversations_user_last_message ON dbo.conversations (user_id, lastMessageAt);
+GO
+
+-- Ids are spaced by the sequence increment, like blocks handed out by pooled-lo
+WITH participants AS (
+    SELECT sender_id AS user_id, receiver_id AS peer_id, id, createdAt, content, 0 AS unread
+    FROM dbo.messages WHERE deletedAt IS NULL
+    UNION ALL
+    SELECT receiver_id, sender_id, id, createdAt, content, CASE WHEN status = 'READ' THEN 0 ELSE 1 END
+    FROM dbo.messages WHERE deletedAt IS NULL
+),
+ranked AS (
+    SELECT user_id, peer_id, id, createdAt, content,
+           SUM(unread) OVER (PARTITION BY user_id, peer_id) AS unreadCount,
+           ROW_NUMBER() OVER (PARTITION BY user_id, peer_id ORDER BY createdAt DESC, id DESC) AS rn
+    FROM participants
+)
+INSERT INTO dbo.conversations (id, user_id, peer_id, lastMessageId, lastMessagePreview, lastMessageAt, unreadCount)
+SELECT (ROW_NUMBER() OVER (ORDER BY user_id, peer_id) - 1) * 50 + 1,
+       user_id, peer_id, id, LEFT(CAST(content AS varchar(max)), 255), createdAt, unreadCount
+FROM ranked
+WHERE rn = 1 AND user_id <> peer_id;
+GO
+
+DECLARE @sql nvarchar(max) = N'ALTER SEQUENCE dbo.conversations_seq RESTART WITH '
+    + CAST((SELECT ISNULL(MAX(id), 0) + 50 FROM dbo.conversations) AS nvarchar(20));
+EXEC sp_executesql @sql;
+GO
@@ -0,0 +1,17 @@
+-- Home timeline entries pushed to the followers of repositories below the
+-- fan-out threshold. Clustered on (user_id, createdAt, note_id) so a timeline
+-- page is one range read; rows go away with their note or repository.
+
+CREATE TABLE dbo.timeline_entries (
+    user_id bigint not null,
+    note_id bigint not null,
+    repository_id bigint not null,
+    createdAt datetime2(6) not null,
+    CONSTRAINT PK_timeline_entries PRIMARY KEY NONCLUSTERED (user_id, note_id),
+    CONSTRAINT FK_timeline_entries_user FOREIGN KEY (user_id) REFERENCES dbo.users,
+    CONSTRAINT FK_timeline_entries_note FOREIGN KEY (note_id) REFERENCES dbo.notes ON DELETE CASCADE,
+    CONSTRAINT FK_timeline_entries_repository FOREIGN KEY (repository_id) REFERENCES dbo.note_repositories ON DELETE CASCADE
+);
+
+CREATE CLUSTERED INDEX IX_timeline_entries_user_created ON dbo.timeline_entries (user_id, createdAt, note_id);
+GO
@@ -0,0 +1,20 @@
+-- Files attached to notes. Content is stored in the blob store under its SHA-256,
+-- so several rows may point at the same blob.
+
+CREATE SEQUENCE dbo.attachments_seq AS bigint START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE dbo.attachments (
+    id bigint not null,
+    note_id bigint not null,
+    filename varchar(255) not null,
+    contentType varchar(255),
+    sizeBytes bigint not null,
+    sha256 varchar(64) not null,
+    createdAt datetime2(6),
+    primary key (id),
+    CONSTRAINT FK_attachments_note FOREIGN KEY (note_id) REFERENCES dbo.notes ON DELETE CASCADE
+);
+
+CREATE INDEX IX_attachments_note ON dbo.attachments (note_id);
+CREATE INDEX IX_attachments_sha256 ON dbo.attachments (sha256);
+GO
@@ -0,0 +1,78 @@
+package com.notesphere.config;
+
+import com.notesphere.model.LikeableType;
+import com.notesphere.model.User;
+import com.notesphere.repository.UserRepository;
+import com.notesphere.service.LikeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A like toggle opens REQUIRES_NEW transactions while the request already holds a connection,
+ * as it does under open-in-view. With a single permit that must not wait on itself.
+ */
+@SpringBootTest(properties = {
+        "notesphere.db.limiter.enabled=true",
+        "notesphere.db.limiter.permits=1",
+        "notesphere.db.limiter.acquire-timeout-ms=1000"
+})
+@ActiveProfiles("test")
+class LimitedToggleTest {
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void loadData() {
+        jdbcTemplate.update("DELETE FROM dbo.likes");
+        jdbcTemplate.update("DELETE FROM dbo.notes");
+        jdbcTemplate.update("DELETE FROM dbo.users");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO dbo.users (id, username, email, password, firstName, lastName, nickname, " +
+                "status, createdAt, updatedAt) VALUES (1, 'user1', 'user1@test.local', 'password', 'First', 'Last', " +
+                "'nick', 'ACTIVE', ?, ?)", now, now);
+        jdbcTemplate.update("INSERT INTO dbo.notes (id, title, content, visibility, creator_id, createdAt, updatedAt, " +
+                "likesCount, commentsCount) VALUES (1, 'Note', 'Content', 'PUBLIC', 1, ?, ?, 0, 0)", now, now);
+    }
+
+    @Test
+    void toggleInsideAnOpenTransactionCompletesWithOnePermit() {
+        assertThat(dataSource).isInstanceOf(ConcurrencyLimitingDataSource.class);
+        ConcurrencyLimitingDataSource limiter = (ConcurrencyLimitingDataSource) dataSource;
+
+        Boolean liked = new TransactionTemplate(transactionManager).execute(status -> {
+            // The outer transaction takes the only permit, like a request's first query under open-in-view
+            User user = userRepository.findById(1L).orElseThrow();
+            assertThat(limiter.getAvailablePermits()).isZero();
+            return likeService.toggleLike(user, 1L, LikeableType.NOTE);
+        });
+
+        assertThat(liked).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT likesCount FROM dbo.notes WHERE id = 1", Long.class))
+                .isEqualTo(1L);
+        assertThat(limiter.getAvailablePermits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,115 @@
+package com.notesphere.service;
+
+import com.notesphere.config.StatementCounter;
+import com.notesphere.dto.note.NoteResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The public feed is read with a projection query, so a page costs the same few
+ * statements however many notes, likes and repository links it contains.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PublicFeedStatementCountTest {
+    private static final int USERS = 5;
+    private static final int NOTES = 60;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void loadData() {
+        jdbcTemplate.update("DELETE FROM dbo.repository_notes");
+        jdbcTemplate.update("DELETE FROM dbo.likes");
+        jdbcTemplate.update("DELETE FROM dbo.notes");
+        jdbcTemplate.update("DELETE FROM dbo.note_repositories");
+        jdbcTemplate.update("DELETE FROM dbo.users");
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> repositories = new ArrayList<>();
+        for (long id = 1; id <= USERS; id++) {
+            users.add(new Object[]{id, "user" + id, "user" + id + "@test.local", "password",
+                    "First" + id, "Last" + id, "nick" + id, "ACTIVE", now, now});
+            repositories.add(new Object[]{id, id, "repository" + id, "PUBLIC", now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO dbo.users (id, username, email, password, firstName, lastName, " +
+                "nickname, status, createdAt, updatedAt) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO dbo.note_repositories (id, creator_id, name, visibility, likesCount, " +
+                "followersCount, notesCount, createdAt, updatedAt) VALUES (?, ?, ?, ?, 0, 0, 0, ?, ?)", repositories);
+
+        List<Object[]> notes = new ArrayList<>();
+        List<Object[]> links = new ArrayList<>();
+        List<Object[]> likes = new ArrayList<>();
+        long likeId = 1;
+        for (long id = 1; id <= NOTES; id++) {
+            long creatorId = 1 + id % USERS;
+            Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now().minusMinutes(NOTES - id));
+            notes.add(new Object[]{id, "Note " + id, "Content " + id, "PUBLIC", creatorId, createdAt, createdAt, id % USERS});
+            // Every note sits in two repositories and is liked by a few users
+            links.add(new Object[]{id, creatorId});
+            links.add(new Object[]{id, 1 + (creatorId % USERS)});
+            for (long userId = 1; userId <= id % USERS; userId++) {
+                likes.add(new Object[]{likeId++, userId, id, "NOTE", now});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO dbo.notes (id, title, content, visibility, creator_id, createdAt, " +
+                "updatedAt, likesCount, commentsCount) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)", notes);
+        jdbcTemplate.batchUpdate("INSERT INTO dbo.repository_notes (note_id, repository_id) VALUES (?, ?)", links);
+        jdbcTemplate.batchUpdate("INSERT INTO dbo.likes (id, user_id, likeable_id, likeable_type, createdAt) " +
+                "VALUES (?, ?, ?, ?, ?)", likes);
+    }
+
+    @Test
+    void feedPageUsesThreeStatementsRegardlessOfPageSize() {
+        for (int size : new int[]{5, 50}) {
+            StatementCounter.Counts counts = statementCounter.start();
+            Page<NoteResponse> page;
+            try {
+                page = noteService.getPublicNotes(
+                        PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "createdAt")), "user1");
+            } finally {
+                statementCounter.stop();
+            }
+
+            assertThat(page.getContent()).hasSize(size);
+            assertThat(page.getTotalElements()).isEqualTo(NOTES);
+            // Page, count and repository links; no entity is loaded along the way
+            assertThat(counts.getStatements()).isEqualTo(3);
+            assertThat(counts.getEntityLoads()).isZero();
+        }
+    }
+
+    @Test
+    void feedPageCarriesCreatorLikesAndRepositories() {
+        Page<NoteResponse> page = noteService.getPublicNotes(
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")), "user1");
+
+        NoteResponse newest = page.getContent().get(0);
+        assertThat(newest.getId()).isEqualTo(NOTES);
+        assertThat(newest.getCreatorUsername()).isEqualTo("user" + (1 + NOTES % USERS));
+        assertThat(newest.getRepositoryIds()).hasSize(2);
+        assertThat(newest.getRepositoryNames()).hasSize(2);
+    }
+}
@@ -32,7 +32,8 @@ const NoteList: React.FC<NoteListProps> = ({ endpoint = '/notes', categoryId })
 
       const res = await fetch(url.toString());
       const data = await res.json();
-      setNotes(data);
+      // Paged endpoints wrap the notes in { content, nextCursor, hasNext }
+      setNotes(Array.isArray(data) ? data : data.content);
     } catch (error) {
       console.error('Notes could not be loaded:', error);
     } finally {
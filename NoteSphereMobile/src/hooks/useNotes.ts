@@ -23,7 +23,7 @@ export const useNotes = () => {
     try {
       setLoading(true);
       const response = await axios.get(`${BASE_URL}/notes`);
-      setNotes(response.data);
+      setNotes(response.data.content);
       setError(null);
     } catch (err: any) {
       setError(err.response?.data?.message || 'Notlar yüklenirken bir hata oluştu');
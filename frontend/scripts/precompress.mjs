@@ -0,0 +1,43 @@
+// Writes .br and .gz next to every compressible file in a build directory, so the
+// backend can serve them by Accept-Encoding without compressing on each request.
+// Usage: node scripts/precompress.mjs <dir>
+import { readdirSync, readFileSync, statSync, writeFileSync } from 'node:fs';
+import { extname, join } from 'node:path';
+import { brotliCompressSync, constants, gzipSync } from 'node:zlib';
+
+const COMPRESSIBLE = new Set(['.html', '.js', '.css', '.svg', '.json', '.ttf', '.txt']);
+const MIN_SIZE = 1024;
+
+const root = process.argv[2] ?? 'dist';
+
+function walk(dir) {
+  for (const name of readdirSync(dir)) {
+    const path = join(dir, name);
+    if (statSync(path).isDirectory()) {
+      walk(path);
+    } else if (COMPRESSIBLE.has(extname(name)) && statSync(path).size >= MIN_SIZE) {
+      compress(path);
+    }
+  }
+}
+
+function compress(path) {
+  const content = readFileSync(path);
+  const brotli = brotliCompressSync(content, {
+    params: {
+      [constants.BROTLI_PARAM_QUALITY]: constants.BROTLI_MAX_QUALITY,
+      [constants.BROTLI_PARAM_SIZE_HINT]: content.length,
+    },
+  });
+  const gzip = gzipSync(content, { level: constants.Z_BEST_COMPRESSION });
+  // A variant that is not smaller is left out; the original is served instead
+  if (brotli.length < content.length) {
+    writeFileSync(`${path}.br`, brotli);
+  }
+  if (gzip.length < content.length) {
+    writeFileSync(`${path}.gz`, gzip);
+  }
+  console.log(`${path}: ${content.length} -> br ${brotli.length}, gz ${gzip.length}`);
+}
+
+walk(root);
@@ -31,7 +31,7 @@ export const NotesPage: React.FC = () => {
     try {
       const response = await fetch('/api/notes');
       const data = await response.json();
-      setNotes(data);
+      setNotes(data.content);
     } catch (error) {
       console.error('Error fetching notes:', error);
     }